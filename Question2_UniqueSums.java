@@ -1,4 +1,10 @@
+import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Question2_UniqueSums {
     
@@ -33,7 +39,8 @@ public class Question2_UniqueSums {
         // Step 1: Sort the array to help with duplicate detection
         // This ensures that combinations like [1,2,3,4] and [4,3,2,1] are treated as the same
         // Tried using a custom comparator first, but sorting was much simpler
-        Arrays.sort(numbers);
+        // Sorting a copy - sorting the caller's array in place surprised people
+        int[] sorted = sortedCopy(numbers);
         
         // ===== SETUP: STORE UNIQUE COMBINATIONS =====
         // Step 2: Use a Set to store unique combinations
@@ -42,7 +49,7 @@ public class Question2_UniqueSums {
         
         // ===== RECURSIVE BACKTRACKING CALL =====
         // Step 3: Use backtracking to find all valid combinations
-        findCombinations(numbers, result, 0, new ArrayList<>(), 0, uniqueCombinations);
+        findCombinations(sorted, result, 0, new ArrayList<>(), 0, uniqueCombinations);
         
         // ===== RETURN RESULT =====
         // Step 4: Return the count of unique combinations
@@ -120,13 +127,13 @@ public class Question2_UniqueSums {
         }
         
         // ===== SETUP: SORT AND CREATE DP TABLE =====
-        // Step 1: Sort the array
-        Arrays.sort(numbers);
+        // Step 1: Sort a copy of the array
+        int[] sorted = sortedCopy(numbers);
         
         // Step 2: Use dynamic programming approach
         // dp[i][j] represents number of ways to sum to j using first i elements
         // Took me a while to understand this DP table structure
-        int n = numbers.length;
+        int n = sorted.length;
         int[][] dp = new int[n + 1][result + 1];
         
         // ===== INITIALIZATION: BASE CASE =====
@@ -143,8 +150,8 @@ public class Question2_UniqueSums {
                 dp[i][j] = dp[i - 1][j];
                 
                 // Include current element if it doesn't exceed target
-                if (numbers[i - 1] <= j) {
-                    dp[i][j] += dp[i - 1][j - numbers[i - 1]];
+                if (sorted[i - 1] <= j) {
+                    dp[i][j] += dp[i - 1][j - sorted[i - 1]];
                 }
             }
         }
@@ -152,6 +159,1617 @@ public class Question2_UniqueSums {
         return dp[n][result];
     }
     
+    // Levels of the search tree handed out as separate fork-join tasks
+    public static final int DEFAULT_SPLIT_DEPTH = 2;
+    
+    /**
+     * ===== PARALLEL PRUNED BACKTRACKING =====
+     * Same count as findUniqueSums, without the dedup Set and with far less of the tree
+     * explored. The top levels of the search tree are split across fork-join workers.
+     * 
+     * Two things made the recursive version slow: it always tried the "exclude" branch,
+     * even when the remaining numbers couldn't add up to the target any more, and it built
+     * duplicate combinations only to throw them away in the Set.
+     * 
+     * Approach:
+     * 1. Sort a copy and precompute suffix sums, suffix[i] = numbers[i] + ... + numbers[n-1]
+     * 2. At each depth pick the next number from left to right. Stop trying at this depth
+     *    as soon as the sum would pass the target (everything to the right is bigger) or
+     *    the suffix can't fill the gap any more (it only shrinks to the right)
+     * 3. Never pick the same value twice at the same depth - that's exactly the duplicate
+     *    the Set used to remove, so each unique combination is found once
+     * 4. The path lives in a primitive int[] stack (no List copies); tasks for the first
+     *    splitDepth levels are forked, deeper subtrees run sequentially in each worker
+     * 
+     * Negative numbers break the pruning, so those inputs go to findUniqueSums.
+     * 
+     * Time Complexity: O(number of unique partial combinations that can still reach the target)
+     * Space Complexity: O(n) per worker
+     * 
+     * @param result Target sum to achieve
+     * @param numbers Array of numbers to use (not modified)
+     * @return Number of unique combinations of values that sum to the target
+     */
+    public static long findUniqueSumsParallel(int result, int[] numbers) {
+        return findUniqueSumsParallel(result, numbers, DEFAULT_SPLIT_DEPTH);
+    }
+    
+    /**
+     * @param result Target sum to achieve
+     * @param numbers Array of numbers to use (not modified)
+     * @param splitDepth Levels of the search tree to split into tasks (0 runs on the calling thread)
+     * @return Number of unique combinations of values that sum to the target
+     */
+    public static long findUniqueSumsParallel(int result, int[] numbers, int splitDepth) {
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException("splitDepth must not be negative: " + splitDepth);
+        }
+        if (numbers == null || numbers.length == 0) {
+            return 0;
+        }
+        
+        int[] sorted = sortedCopy(numbers);
+        if (sorted[0] < 0) {
+            return findUniqueSums(result, sorted);
+        }
+        
+        long[] suffix = suffixSums(sorted);
+        CombinationCountTask root = new CombinationCountTask(sorted, suffix, result,
+                new int[sorted.length], 0, 0, splitDepth);
+        return splitDepth == 0 ? root.compute() : ForkJoinPool.commonPool().invoke(root);
+    }
+    
+    /**
+     * suffix[i] = sorted[i] + ... + sorted[n-1], with suffix[n] = 0.
+     */
+    private static long[] suffixSums(int[] sorted) {
+        long[] suffix = new long[sorted.length + 1];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            suffix[i] = suffix[i + 1] + sorted[i];
+        }
+        return suffix;
+    }
+    
+    /**
+     * ===== HELPER CLASS: FORK-JOIN TASK FOR ONE SUBTREE =====
+     * Counts the unique combinations that extend the given path. Above splitDepth it forks
+     * one task per child; at splitDepth it walks the subtree with a CombinationCursor.
+     */
+    private static final class CombinationCountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+        
+        private final transient int[] sorted;
+        private final transient long[] suffix;
+        private final long target;
+        private final transient int[] path;
+        private final int depth;
+        private final long sum;
+        private final int splitDepth;
+        
+        CombinationCountTask(int[] sorted, long[] suffix, long target, int[] path, int depth,
+                             long sum, int splitDepth) {
+            this.sorted = sorted;
+            this.suffix = suffix;
+            this.target = target;
+            this.path = path;
+            this.depth = depth;
+            this.sum = sum;
+            this.splitDepth = splitDepth;
+        }
+        
+        @Override
+        protected Long compute() {
+            if (sum == target) {
+                return 1L; // like findUniqueSums, a hit is never extended further
+            }
+            
+            if (depth >= splitDepth) {
+                CombinationCursor cursor = new CombinationCursor(sorted, suffix, target, path, depth, sum);
+                long count = 0;
+                while (cursor.advance()) {
+                    count++;
+                }
+                return count;
+            }
+            
+            // ===== FORK ONE TASK PER DISTINCT CHILD VALUE =====
+            List<CombinationCountTask> children = new ArrayList<>();
+            int start = depth == 0 ? 0 : path[depth - 1] + 1;
+            for (int i = start; i < sorted.length; i++) {
+                if (i > start && sorted[i] == sorted[i - 1]) {
+                    continue; // same value at the same depth - duplicate combination
+                }
+                if (sum + sorted[i] > target || sum + suffix[i] < target) {
+                    break; // both bounds only get worse to the right
+                }
+                int[] childPath = path.clone();
+                childPath[depth] = i;
+                children.add(new CombinationCountTask(sorted, suffix, target, childPath, depth + 1,
+                        sum + sorted[i], splitDepth));
+            }
+            
+            long count = 0;
+            for (CombinationCountTask child : invokeAll(children)) {
+                count += child.join();
+            }
+            return count;
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: ITERATIVE BACKTRACKING CURSOR =====
+     * Walks the pruned search tree below a fixed prefix one hit at a time, with the path
+     * kept in an int[] stack of indices into the sorted array. Each advance() stops at the
+     * next unique combination; the caller reads it from the stack.
+     * 
+     * Same pruning and duplicate-skipping rules as CombinationCountTask. The prefix is the
+     * "floor" of the stack - the cursor never backtracks into it, which is how a worker
+     * only walks its own subtree.
+     */
+    private static final class CombinationCursor {
+        private final int[] sorted;
+        private final long[] suffix;
+        private final long target;
+        private final int[] path;
+        private final int floor;
+        
+        private int depth;
+        private long sum;
+        private int candidate;      // next index to try at the current depth
+        private boolean started;
+        private boolean done;
+        
+        CombinationCursor(int[] sorted, long[] suffix, long target, int[] prefix, int prefixLength,
+                          long prefixSum) {
+            this.sorted = sorted;
+            this.suffix = suffix;
+            this.target = target;
+            this.path = Arrays.copyOf(prefix, sorted.length);
+            this.floor = prefixLength;
+            this.depth = prefixLength;
+            this.sum = prefixSum;
+        }
+        
+        /**
+         * Moves to the next combination that sums to the target.
+         * 
+         * @return false once the subtree is exhausted
+         */
+        boolean advance() {
+            if (done) {
+                return false;
+            }
+            
+            if (!started) {
+                started = true;
+                if (sum == target) {
+                    return true; // the prefix itself is a hit
+                }
+                candidate = depth == 0 ? 0 : path[depth - 1] + 1;
+            } else if (!backtrack()) {
+                // The last hit is a leaf - hits are never extended, so back up first
+                done = true;
+                return false;
+            }
+            
+            while (true) {
+                if (candidate < sorted.length
+                        && sum + sorted[candidate] <= target
+                        && sum + suffix[candidate] >= target) {
+                    // ===== INCLUDE: PUSH AND GO ONE LEVEL DEEPER =====
+                    path[depth++] = candidate;
+                    sum += sorted[candidate];
+                    if (sum == target) {
+                        return true;
+                    }
+                    candidate++;
+                } else if (!backtrack()) {
+                    // ===== NOTHING LEFT AT THIS DEPTH, AND NOWHERE TO BACK UP TO =====
+                    done = true;
+                    return false;
+                }
+            }
+        }
+        
+        /**
+         * Pops the top of the stack and moves on to the next different value at that depth.
+         * 
+         * @return false if the stack is already down to the floor
+         */
+        private boolean backtrack() {
+            if (depth == floor) {
+                return false;
+            }
+            int index = path[--depth];
+            sum -= sorted[index];
+            candidate = index + 1;
+            while (candidate < sorted.length && sorted[candidate] == sorted[index]) {
+                candidate++;
+            }
+            return true;
+        }
+        
+        /** Length of the current combination. */
+        int length() {
+            return depth;
+        }
+        
+        /** Value at the given position of the current combination (ascending order). */
+        int valueAt(int position) {
+            return sorted[path[position]];
+        }
+    }
+    
+    /**
+     * ===== LAZY ENUMERATION: ONE COMBINATION AT A TIME =====
+     * Hands out the unique combinations findUniqueSums counts, one by one, without ever
+     * holding more than the current one in memory.
+     * 
+     * The Set<List<Integer>> in findUniqueSums is fully built before anything comes back,
+     * which means millions of boxed lists for big inputs. This walks the same pruned tree
+     * as findUniqueSumsParallel with a CombinationCursor, and stops whenever the caller
+     * stops asking - memory is O(n) no matter how many combinations exist.
+     * 
+     * Two ways to consume it:
+     * 1. next(buffer) - writes the next combination into a caller-owned int[], nothing allocated
+     * 2. stream() - a Stream<int[]> with a fresh array per combination, so limit(), findFirst()
+     *    and friends cut the search short
+     * 
+     * Combinations come out in ascending order, e.g. [1, 2, 3, 4], [1, 4, 5], [2, 3, 5].
+     * Not thread-safe; each instance is a single pass.
+     */
+    public static final class UniqueCombinations {
+        private final CombinationCursor cursor; // null when there's nothing to enumerate
+        private final int maxLength;
+        
+        private UniqueCombinations(CombinationCursor cursor, int maxLength) {
+            this.cursor = cursor;
+            this.maxLength = maxLength;
+        }
+        
+        /**
+         * @param result Target sum to achieve
+         * @param numbers Array of non-negative numbers to use (not modified)
+         * @return A cursor positioned before the first combination
+         */
+        public static UniqueCombinations of(int result, int[] numbers) {
+            // Same as findUniqueSums: no numbers means no combinations, not even the empty one
+            if (numbers == null || numbers.length == 0) {
+                return new UniqueCombinations(null, 0);
+            }
+            
+            int[] sorted = sortedCopy(numbers);
+            if (sorted[0] < 0) {
+                throw new IllegalArgumentException("enumeration needs non-negative numbers: " + sorted[0]);
+            }
+            CombinationCursor cursor = new CombinationCursor(sorted, suffixSums(sorted), result,
+                    new int[0], 0, 0);
+            return new UniqueCombinations(cursor, sorted.length);
+        }
+        
+        /**
+         * @return Buffer size that's always big enough for next(int[])
+         */
+        public int maxLength() {
+            return maxLength;
+        }
+        
+        /**
+         * Writes the next combination into the front of the buffer.
+         * 
+         * @param buffer Reusable array, at least maxLength() long to be safe
+         * @return Length of the combination written, or -1 when there are no more
+         * @throws IllegalArgumentException If the combination doesn't fit in the buffer
+         */
+        public int next(int[] buffer) {
+            if (cursor == null || !cursor.advance()) {
+                return -1;
+            }
+            int length = cursor.length();
+            if (buffer.length < length) {
+                throw new IllegalArgumentException("buffer too small: need " + length + ", got " + buffer.length);
+            }
+            for (int i = 0; i < length; i++) {
+                buffer[i] = cursor.valueAt(i);
+            }
+            return length;
+        }
+        
+        /**
+         * @return The remaining combinations as a lazy, sequential stream
+         */
+        public Stream<int[]> stream() {
+            Spliterator<int[]> spliterator = new Spliterators.AbstractSpliterator<int[]>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super int[]> action) {
+                    if (cursor == null || !cursor.advance()) {
+                        return false;
+                    }
+                    int[] combination = new int[cursor.length()];
+                    for (int i = 0; i < combination.length; i++) {
+                        combination[i] = cursor.valueAt(i);
+                    }
+                    action.accept(combination);
+                    return true;
+                }
+            };
+            return StreamSupport.stream(spliterator, false);
+        }
+    }
+    
+    /**
+     * ===== FAST PATH: CAN ANY COMBINATION REACH THE TARGET? =====
+     * Answers "is the count above zero" without counting anything.
+     * 
+     * Most of our callers only need yes/no, and counting paid for the full DP anyway. Here
+     * the reachable sums are bits in a long[], and adding a number v is one shift-or of
+     * the whole bitset: reachable |= reachable << v. That's 64 sums per operation instead
+     * of one int add per sum, and it stops as soon as the target bit turns on.
+     * 
+     * Same edge cases as findUniqueSums: a target of 0 is reachable with the empty
+     * combination, but not from an empty array.
+     * 
+     * Time Complexity: O(n * T / 64), usually less thanks to the early exit
+     * Space Complexity: O(T / 64) longs
+     * 
+     * @param result Target sum to reach
+     * @param numbers Array of non-negative numbers to use (not modified)
+     * @return true if some combination of the numbers sums to the target
+     */
+    public static boolean canReach(int result, int[] numbers) {
+        long[] reachable = reachableBits(result, numbers, true);
+        return reachable != null && (reachable[result >>> 6] & (1L << result)) != 0;
+    }
+    
+    /**
+     * Every sum from 0 to the target that some combination reaches, for callers that want
+     * to answer several targets (all at or below this one) from the same pass.
+     * 
+     * @param result Largest sum of interest
+     * @param numbers Array of non-negative numbers to use (not modified)
+     * @return The reachable sums as a BitSet (empty if numbers is null or empty)
+     */
+    public static BitSet reachableSums(int result, int[] numbers) {
+        long[] reachable = reachableBits(result, numbers, false);
+        return reachable == null ? new BitSet() : BitSet.valueOf(reachable);
+    }
+    
+    /**
+     * ===== HELPER FUNCTION: WORD-LEVEL SHIFT-OR =====
+     * Bit s of the result is set when some combination sums to s. Returns null when
+     * nothing is reachable at all (no numbers, or a negative target).
+     */
+    private static long[] reachableBits(int result, int[] numbers, boolean stopAtTarget) {
+        if (numbers == null || numbers.length == 0 || result < 0) {
+            return null;
+        }
+        
+        long[] bits = new long[(result >>> 6) + 1];
+        bits[0] = 1; // the empty combination
+        long maxReachable = 0;
+        
+        for (int value : numbers) {
+            if (value < 0) {
+                throw new IllegalArgumentException("canReach needs non-negative numbers: " + value);
+            }
+            if (value == 0 || value > result) {
+                continue; // adds nothing new
+            }
+            
+            // Only words that can hold a new sum need touching
+            maxReachable = Math.min(result, maxReachable + value);
+            int wordShift = value >>> 6;
+            int bitShift = value & 63;
+            
+            // ===== SHIFT-OR, HIGH WORDS FIRST =====
+            // Going from the top down means every word I read is still the old value
+            for (int i = (int) (maxReachable >>> 6); i >= wordShift; i--) {
+                long shifted = bits[i - wordShift] << bitShift;
+                if (bitShift != 0 && i - wordShift > 0) {
+                    shifted |= bits[i - wordShift - 1] >>> (64 - bitShift);
+                }
+                bits[i] |= shifted;
+            }
+            
+            if (stopAtTarget && (bits[result >>> 6] & (1L << result)) != 0) {
+                return bits; // early exit - the target is reachable
+            }
+        }
+        
+        // Sums past the target can land in the last word; drop them
+        bits[result >>> 6] &= -1L >>> (63 - (result & 63));
+        return bits;
+    }
+    
+    /**
+     * ===== DP MODE: ROLLING SINGLE ROW =====
+     * Same counts as findUniqueSumsDP, but with one row instead of the full table.
+     * 
+     * Row i only ever reads row i - 1, so one array is enough if j walks from the target
+     * down - dp[j - v] is then still the previous row's value when dp[j] reads it. Counts
+     * are longs, so inputs that silently overflowed the int table now come out right (up
+     * to Long.MAX_VALUE - use the modular or BigInteger mode past that).
+     * 
+     * Like findUniqueSumsDP this counts index subsets: {5,5,5} with target 10 is 3.
+     * 
+     * Time Complexity: O(n * T)
+     * Space Complexity: O(T) - down from O(n * T)
+     * 
+     * @param result Target sum to achieve
+     * @param numbers Array of non-negative numbers to use (not modified)
+     * @return Number of index subsets that sum to the target
+     */
+    public static long findUniqueSumsDPRolling(int result, int[] numbers) {
+        long[] dp = rollingCounts(result, numbers, 0);
+        return dp == null ? 0 : dp[result];
+    }
+    
+    /**
+     * Rolling DP with every count reduced modulo the given modulus, for inputs where even
+     * a long overflows and the exact value isn't needed (e.g. modulus 1_000_000_007).
+     * 
+     * @param result Target sum to achieve
+     * @param numbers Array of non-negative numbers to use (not modified)
+     * @param modulus Modulus for the counts, at least 1
+     * @return Number of index subsets that sum to the target, modulo modulus
+     */
+    public static long findUniqueSumsDPModular(int result, int[] numbers, long modulus) {
+        if (modulus < 1) {
+            throw new IllegalArgumentException("modulus must be at least 1: " + modulus);
+        }
+        long[] dp = rollingCounts(result, numbers, modulus);
+        return dp == null ? 0 : dp[result] % modulus;
+    }
+    
+    /**
+     * Rolling DP with exact BigInteger counts. Much slower than the long version - only
+     * worth it when the exact count really is bigger than Long.MAX_VALUE.
+     * 
+     * @param result Target sum to achieve
+     * @param numbers Array of non-negative numbers to use (not modified)
+     * @return Exact number of index subsets that sum to the target
+     */
+    public static BigInteger findUniqueSumsDPBig(int result, int[] numbers) {
+        if (!checkDPInput(result, numbers)) {
+            return BigInteger.ZERO;
+        }
+        
+        BigInteger[] dp = new BigInteger[result + 1];
+        Arrays.fill(dp, BigInteger.ZERO);
+        dp[0] = BigInteger.ONE;
+        for (int value : numbers) {
+            if (value == 0) {
+                continue; // see checkDPInput
+            }
+            for (int j = result; j >= value; j--) {
+                dp[j] = dp[j].add(dp[j - value]);
+            }
+        }
+        return dp[result];
+    }
+    
+    /**
+     * ===== HELPER FUNCTION: ROLLING ROW SHARED BY THE LONG AND MODULAR MODES =====
+     * Returns the final row, or null when the answer is trivially 0.
+     * A modulus of 0 means plain long arithmetic.
+     */
+    private static long[] rollingCounts(int result, int[] numbers, long modulus) {
+        if (!checkDPInput(result, numbers)) {
+            return null;
+        }
+        
+        long[] dp = new long[result + 1];
+        dp[0] = 1;
+        for (int value : numbers) {
+            if (value == 0) {
+                continue; // see checkDPInput
+            }
+            for (int j = result; j >= value; j--) {
+                long sum = dp[j] + dp[j - value];
+                if (modulus != 0 && (sum < 0 || sum >= modulus)) {
+                    sum -= modulus; // both terms are < modulus, so one subtraction is enough
+                }
+                dp[j] = sum;
+            }
+        }
+        return dp;
+    }
+    
+    /**
+     * Edge cases shared by the DP modes.
+     * 
+     * The modes also skip zeros. findUniqueSumsDP sorts first, so its zeros are processed
+     * while only dp[0] is set, and since j starts at 1 they never change anything - the
+     * modes don't sort, so they skip zeros explicitly to give the same counts.
+     * 
+     * @return false if the answer is 0 without running the DP
+     */
+    private static boolean checkDPInput(int result, int[] numbers) {
+        if (numbers == null || numbers.length == 0 || result < 0) {
+            return false;
+        }
+        for (int value : numbers) {
+            if (value < 0) {
+                throw new IllegalArgumentException("DP modes need non-negative numbers: " + value);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * ===== DP MODE: SPARSE REACHABLE SUMS =====
+     * Same counts as findUniqueSumsDP, but only sums that are actually reachable are
+     * stored, in a primitive open-addressing map from sum to count.
+     * 
+     * With a target in the hundreds of millions and a handful of numbers, the dense row is
+     * almost all zeros. Here memory and time scale with the number of reachable sums
+     * (at most 2^n, and at most T + 1) instead of with the target.
+     * 
+     * Time Complexity: O(n * R) - R reachable sums up to the target
+     * Space Complexity: O(R)
+     * 
+     * @param result Target sum to achieve
+     * @param numbers Array of non-negative numbers to use (not modified)
+     * @return Number of index subsets that sum to the target
+     */
+    public static long findUniqueSumsDPSparse(int result, int[] numbers) {
+        if (!checkDPInput(result, numbers)) {
+            return 0;
+        }
+        
+        SumCountMap reachable = new SumCountMap();
+        reachable.add(0, 1);
+        int[] sums = new int[0];
+        long[] counts = new long[0];
+        
+        for (int value : numbers) {
+            if (value == 0 || value > result) {
+                continue; // zeros: see checkDPInput
+            }
+            
+            // ===== SNAPSHOT THE PREVIOUS "ROW" =====
+            // Updates below must read counts from before this number was added
+            int size = reachable.size();
+            if (sums.length < size) {
+                sums = new int[Math.max(size, sums.length * 2)];
+                counts = new long[sums.length];
+            }
+            reachable.copyTo(sums, counts);
+            
+            for (int i = 0; i < size; i++) {
+                long next = (long) sums[i] + value;
+                if (next <= result) {
+                    reachable.add((int) next, counts[i]);
+                }
+            }
+        }
+        
+        return reachable.get(result);
+    }
+    
+    /**
+     * ===== HELPER CLASS: PRIMITIVE MAP FROM SUM TO COUNT =====
+     * Open addressing with linear probing over int keys and long values - no boxing and no
+     * entry objects. Sums are never negative, so -1 marks an empty slot.
+     */
+    private static final class SumCountMap {
+        private static final int EMPTY = -1;
+        
+        private int[] keys;
+        private long[] values;
+        private int size;
+        
+        SumCountMap() {
+            keys = new int[16];
+            values = new long[16];
+            Arrays.fill(keys, EMPTY);
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        /** Empties the map but keeps its capacity, for reuse. */
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+        
+        long get(int key) {
+            int slot = find(keys, key);
+            return keys[slot] == key ? values[slot] : 0;
+        }
+        
+        void add(int key, long delta) {
+            int slot = find(keys, key);
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return;
+            }
+            keys[slot] = key;
+            values[slot] = delta;
+            // Keep the load factor at or below 1/2 so probe chains stay short
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+        
+        /** Copies every (key, value) pair into the given arrays, in table order. */
+        void copyTo(int[] outKeys, long[] outValues) {
+            int n = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY) {
+                    outKeys[n] = keys[slot];
+                    outValues[n] = values[slot];
+                    n++;
+                }
+            }
+        }
+        
+        private void grow() {
+            int[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new long[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY) {
+                    int target = find(keys, oldKeys[slot]);
+                    keys[target] = oldKeys[slot];
+                    values[target] = oldValues[slot];
+                }
+            }
+        }
+        
+        // Slot holding the key, or the empty slot where it would go
+        private static int find(int[] table, int key) {
+            int mask = table.length - 1;
+            // Fibonacci hashing - sums are often multiples of the same step, which would
+            // pile up in a handful of slots with a plain "key & mask"
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (table[slot] != EMPTY && table[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+    
+    /**
+     * ===== COUNTING ENGINE: BOUNDED-MULTIPLICITY DP =====
+     * Counts the same thing as findUniqueSums - unique value combinations, so {5,5,5} with
+     * target 10 is 1, not 3 - without enumerating subsets.
+     * 
+     * findUniqueSumsDP is fast but counts index subsets, which over-counts as soon as the
+     * input has repeated values. Grouping equal values first fixes that: for a value v that
+     * appears c times, a combination can use it 0..c times, and each choice is one distinct
+     * combination.
+     * 
+     * Approach:
+     * 1. Sort a copy of the input and group it into (value, count) pairs
+     * 2. ways[s] = number of unique combinations of the groups so far that sum to s
+     * 3. For each group: next[s] = ways[s] + ways[s - v] + ... + ways[s - c*v]. That's a
+     *    sliding window over s, s-v, s-2v, ... so it's O(1) per s:
+     *    next[s] = ways[s] + next[s - v] - ways[s - (c+1)*v]
+     * 
+     * Same answers as findUniqueSums (including 1 for a target of 0). Negative numbers
+     * break the pruning the recursive version relies on, so inputs with negatives are
+     * passed straight to findUniqueSums to keep the answers identical.
+     * 
+     * Time Complexity: O(n log n + d * T) - d distinct values, T the target
+     * Space Complexity: O(T) - two rows of longs; counts past Long.MAX_VALUE wrap around
+     * 
+     * @param result Target sum to achieve
+     * @param numbers Array of numbers to use (not modified)
+     * @return Number of unique combinations of values that sum to the target
+     */
+    public static long countUniqueSums(int result, int[] numbers) {
+        // ===== EDGE CASE HANDLING =====
+        if (numbers == null || numbers.length == 0) {
+            return 0;
+        }
+        
+        int[] sorted = sortedCopy(numbers);
+        if (sorted[0] < 0) {
+            return findUniqueSums(result, sorted);
+        }
+        if (result < 0) {
+            return 0;
+        }
+        if (result == 0) {
+            return 1; // findUniqueSums stops at the empty combination
+        }
+        
+        return uniqueSumCounts(ValueGroups.of(sorted), result)[result];
+    }
+    
+    /**
+     * ===== HELPER FUNCTION: COUNTS FOR EVERY TARGET UP TO maxTarget =====
+     * ways[s] for every s in 0..maxTarget, from non-negative value groups. Note ways[0]
+     * counts the zero-only combinations too; findUniqueSums reports 1 for a target of 0,
+     * so callers special-case it.
+     */
+    private static long[] uniqueSumCounts(ValueGroups groups, int maxTarget) {
+        long[] ways = new long[maxTarget + 1];
+        long[] next = new long[maxTarget + 1];
+        ways[0] = 1;
+        
+        for (int g = 0; g < groups.size; g++) {
+            int value = groups.values[g];
+            int count = groups.counts[g];
+            
+            // ===== ZEROS: EVERY COMBINATION CAN TAKE 0..c OF THEM =====
+            // findUniqueSums keeps [0,1] and [1] as different combinations, so zeros
+            // multiply the count rather than being ignored
+            if (value == 0) {
+                for (int s = 0; s <= maxTarget; s++) {
+                    ways[s] *= count + 1;
+                }
+                continue;
+            }
+            if (value > maxTarget) {
+                break; // sorted, so every later value is too big as well
+            }
+            
+            // ===== SLIDING WINDOW OVER s, s-v, ..., s-c*v =====
+            long windowSpan = (long) (count + 1) * value;
+            for (int s = 0; s <= maxTarget; s++) {
+                long total = ways[s];
+                if (s >= value) {
+                    total += next[s - value];
+                }
+                if (s >= windowSpan) {
+                    total -= ways[(int) (s - windowSpan)];
+                }
+                next[s] = total;
+            }
+            
+            long[] swap = ways;
+            ways = next;
+            next = swap;
+        }
+        
+        return ways;
+    }
+    
+    /**
+     * ===== PREPARED QUERIES: ONE POOL, MANY TARGETS =====
+     * Unique-combination counts (same as findUniqueSums) for every target from 0 to
+     * maxTarget, computed in one DP pass up front. After that each target is an array
+     * lookup.
+     * 
+     * We query the same pool of numbers with lots of different targets, and every call used
+     * to re-sort and start over. prepare() goes through a shared bounded cache keyed by the
+     * sorted multiset, so pools that come back (in any order) skip the DP entirely.
+     * 
+     * Time Complexity: O(n log n + d * T) to prepare, O(1) per query
+     * Space Complexity: O(T) per prepared pool
+     */
+    public static final class PreparedSums {
+        private final long[] counts;
+        private final boolean empty;
+        
+        private PreparedSums(long[] counts, boolean empty) {
+            this.counts = counts;
+            this.empty = empty;
+        }
+        
+        /**
+         * Prepares (or fetches from the shared cache) counts for every target up to maxTarget.
+         * 
+         * @param numbers Array of non-negative numbers to use (not modified)
+         * @param maxTarget Largest target that will be queried
+         * @return Prepared counts for that pool
+         */
+        public static PreparedSums prepare(int[] numbers, int maxTarget) {
+            return SHARED_PREPARED_CACHE.prepare(numbers, maxTarget);
+        }
+        
+        /**
+         * Builds prepared counts without touching any cache.
+         * 
+         * @param numbers Array of non-negative numbers to use (not modified)
+         * @param maxTarget Largest target that will be queried
+         * @return Prepared counts for that pool
+         */
+        public static PreparedSums compute(int[] numbers, int maxTarget) {
+            return fromSorted(numbers == null ? new int[0] : sortedCopy(numbers), maxTarget);
+        }
+        
+        private static PreparedSums fromSorted(int[] sorted, int maxTarget) {
+            if (maxTarget < 0) {
+                throw new IllegalArgumentException("maxTarget must not be negative: " + maxTarget);
+            }
+            if (sorted.length > 0 && sorted[0] < 0) {
+                throw new IllegalArgumentException("prepared queries need non-negative numbers: " + sorted[0]);
+            }
+            return new PreparedSums(uniqueSumCounts(ValueGroups.of(sorted), maxTarget), sorted.length == 0);
+        }
+        
+        /**
+         * @return Largest target this instance can answer
+         */
+        public int maxTarget() {
+            return counts.length - 1;
+        }
+        
+        /**
+         * @param result Target sum, at most maxTarget()
+         * @return Number of unique combinations that sum to it - same as findUniqueSums
+         */
+        public long count(int result) {
+            if (result > maxTarget()) {
+                throw new IllegalArgumentException("target " + result + " is above maxTarget " + maxTarget());
+            }
+            // Same edge cases as findUniqueSums
+            if (empty || result < 0) {
+                return 0;
+            }
+            return result == 0 ? 1 : counts[result];
+        }
+    }
+    
+    private static final PreparedSumsCache SHARED_PREPARED_CACHE = new PreparedSumsCache();
+    
+    /**
+     * ===== CACHE OF PREPARED POOLS =====
+     * Bounded LRU cache from a canonical pool (the sorted multiset) to its PreparedSums.
+     * An entry prepared for a smaller maxTarget is recomputed and replaced when a bigger
+     * one is asked for; a bigger entry happily answers smaller requests.
+     * 
+     * Thread-safe. The DP runs outside the lock.
+     */
+    public static final class PreparedSumsCache {
+        public static final int DEFAULT_CAPACITY = 32;
+        
+        private final int capacity;
+        private final Map<PoolKey, PreparedSums> cache;
+        private long hits;
+        private long misses;
+        
+        public PreparedSumsCache() {
+            this(DEFAULT_CAPACITY);
+        }
+        
+        /**
+         * @param capacity Maximum number of pools to keep
+         */
+        public PreparedSumsCache(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+            }
+            this.capacity = capacity;
+            // accessOrder = true turns LinkedHashMap into an LRU list
+            this.cache = new LinkedHashMap<PoolKey, PreparedSums>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PoolKey, PreparedSums> eldest) {
+                    return size() > PreparedSumsCache.this.capacity;
+                }
+            };
+        }
+        
+        /**
+         * @param numbers Array of non-negative numbers to use (not modified)
+         * @param maxTarget Largest target that will be queried
+         * @return Prepared counts for that pool, from the cache when possible
+         */
+        public PreparedSums prepare(int[] numbers, int maxTarget) {
+            PoolKey key = new PoolKey(numbers == null ? new int[0] : sortedCopy(numbers));
+            synchronized (this) {
+                PreparedSums cached = cache.get(key);
+                if (cached != null && cached.maxTarget() >= maxTarget) {
+                    hits++;
+                    return cached;
+                }
+                misses++;
+            }
+            
+            PreparedSums prepared = PreparedSums.fromSorted(key.sorted, maxTarget);
+            synchronized (this) {
+                PreparedSums raced = cache.get(key);
+                if (raced != null && raced.maxTarget() >= maxTarget) {
+                    return raced;
+                }
+                cache.put(key, prepared);
+                return prepared;
+            }
+        }
+        
+        public synchronized long hits() {
+            return hits;
+        }
+        
+        public synchronized long misses() {
+            return misses;
+        }
+        
+        /**
+         * @return Number of pools currently cached
+         */
+        public synchronized int size() {
+            return cache.size();
+        }
+        
+        public synchronized void clear() {
+            cache.clear();
+            hits = 0;
+            misses = 0;
+        }
+    }
+    
+    /**
+     * Cache key: the sorted pool, with its hash computed once.
+     */
+    private static final class PoolKey {
+        final int[] sorted;
+        private final int hash;
+        
+        PoolKey(int[] sorted) {
+            this.sorted = sorted;
+            this.hash = Arrays.hashCode(sorted);
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof PoolKey && Arrays.equals(sorted, ((PoolKey) other).sorted);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+    
+    // 119 * 2^23 + 1 - transforms up to 2^23 points, primitive root 3
+    public static final int DEFAULT_NTT_PRIME = 998_244_353;
+    
+    /**
+     * ===== GENERATING FUNCTIONS: ALL TARGETS MODULO A PRIME =====
+     * Unique-combination counts (same as findUniqueSums) for every target 0..maxTarget,
+     * modulo DEFAULT_NTT_PRIME.
+     * 
+     * @param maxTarget Largest target of interest
+     * @param numbers Array of non-negative numbers to use (not modified)
+     * @return counts[t] = number of unique combinations summing to t, mod the prime
+     */
+    public static long[] countUniqueSumsModPrime(int maxTarget, int[] numbers) {
+        return countUniqueSumsModPrime(maxTarget, numbers, DEFAULT_NTT_PRIME);
+    }
+    
+    /**
+     * Each distinct value v appearing c times contributes the polynomial
+     * P_v(x) = 1 + x^v + x^(2v) + ... + x^(cv) - pick it 0..c times - and the coefficient
+     * of x^t in the product of all of them is the number of unique combinations summing
+     * to t.
+     * 
+     * Even the O(d * T) DP was too slow for our largest pools. Multiplying the P_v's
+     * pairwise doesn't help much on its own: a value v gives a polynomial of degree up to
+     * min(cv, T), so the leaves alone are already ~d * T numbers. Working with the
+     * logarithm of the product is what makes it near-linear:
+     * 
+     * Approach:
+     * 1. P_v = (1 - x^((c+1)v)) / (1 - x^v), so log P_v = sum over k of (x^(kv) - x^(k(c+1)v)) / k.
+     *    Adding those up for every value costs T/v per value - O(T log T) in total
+     * 2. Write F = product of all P_v and G = log F. Then F' = G' * F, which gives
+     *    n * f[n] = sum over k = 1..n of h[k] * f[n-k], where h[k] = k * g[k]. The log series
+     *    divided by k times k is just an integer: h[n] = sum of v over values v dividing n,
+     *    minus (c+1)v over the (c+1)v dividing n
+     * 3. That recurrence is solved divide-and-conquer (CDQ style): finish the left half of
+     *    f, push its contribution onto the right half with one NTT multiplication, recurse
+     *    on the right half. NTT is an FFT over integers mod p, so there's no rounding error
+     * 4. Zeros multiply everything by c + 1 at the end
+     * 
+     * The prime has to be of the form k * 2^m + 1 with 2^m at least twice the number of
+     * targets (998244353 allows 2^23 points), below 2^31 so products fit in a long, and
+     * above maxTarget so every n in step 2 has an inverse.
+     * 
+     * Time Complexity: O(T log^2 T) - independent of how many numbers there are (after sorting)
+     * Space Complexity: O(T)
+     * 
+     * @param maxTarget Largest target of interest
+     * @param numbers Array of non-negative numbers to use (not modified)
+     * @param prime NTT-friendly prime below 2^31 and above maxTarget
+     * @return counts[t] = number of unique combinations summing to t, mod the prime
+     */
+    public static long[] countUniqueSumsModPrime(int maxTarget, int[] numbers, long prime) {
+        if (maxTarget < 0) {
+            throw new IllegalArgumentException("maxTarget must not be negative: " + maxTarget);
+        }
+        NumberTheoreticTransform ntt = NumberTheoreticTransform.forPrime(prime, maxTarget + 1);
+        if (prime <= maxTarget) {
+            throw new IllegalArgumentException("prime " + prime + " must be above maxTarget " + maxTarget);
+        }
+        
+        long[] counts = new long[maxTarget + 1];
+        if (numbers == null || numbers.length == 0) {
+            return counts; // same as findUniqueSums: nothing to combine, not even for 0
+        }
+        int[] sorted = sortedCopy(numbers);
+        if (sorted[0] < 0) {
+            throw new IllegalArgumentException("generating functions need non-negative numbers: " + sorted[0]);
+        }
+        
+        // ===== STEP 1-2: h[n] = n * [x^n] log F =====
+        ValueGroups groups = ValueGroups.of(sorted);
+        long[] h = new long[maxTarget + 1];
+        long zeroFactor = 1;
+        for (int g = 0; g < groups.size; g++) {
+            int value = groups.values[g];
+            if (value == 0) {
+                zeroFactor = (groups.counts[g] + 1) % prime;
+                continue;
+            }
+            if (value > maxTarget) {
+                break; // sorted, so every later value is too big as well
+            }
+            for (int n = value; n <= maxTarget; n += value) {
+                h[n] = (h[n] + value) % prime;
+            }
+            long period = (long) (groups.counts[g] + 1) * value;
+            for (long n = period; n <= maxTarget; n += period) {
+                h[(int) n] = (h[(int) n] + prime - period % prime) % prime;
+            }
+        }
+        
+        // ===== STEP 3: F = exp(G) FROM n * f[n] = sum h[k] * f[n-k] =====
+        long[] inverse = new long[maxTarget + 1];
+        if (maxTarget >= 1) {
+            inverse[1] = 1;
+        }
+        for (int n = 2; n <= maxTarget; n++) {
+            // Standard linear-time table of inverses mod a prime
+            inverse[n] = (prime - (prime / n) * inverse[(int) (prime % n)] % prime) % prime;
+        }
+        long[] pending = new long[maxTarget + 1];   // the sum, filled in as left halves finish
+        counts[0] = 1;
+        exponentiate(counts, h, pending, inverse, 0, maxTarget + 1, ntt);
+        
+        // ===== STEP 4: ZEROS =====
+        for (int t = 0; t <= maxTarget; t++) {
+            counts[t] = counts[t] * zeroFactor % prime;
+        }
+        counts[0] = 1; // findUniqueSums stops at the empty combination
+        return counts;
+    }
+    
+    // Blocks this small are finished directly - the transforms cost more than they save
+    private static final int EXPONENTIATE_BLOCK = 64;
+    
+    /**
+     * ===== HELPER FUNCTION: DIVIDE-AND-CONQUER EXPONENTIATION =====
+     * Finishes f[from..to), given that pending[n] already holds every h[k] * f[n-k] term
+     * with n - k below from.
+     */
+    private static void exponentiate(long[] f, long[] h, long[] pending, long[] inverse, int from, int to,
+                                     NumberTheoreticTransform ntt) {
+        long mod = ntt.mod;
+        
+        // ===== SMALL BLOCK: DIRECT =====
+        if (to - from <= EXPONENTIATE_BLOCK) {
+            for (int n = from; n < to; n++) {
+                long total = pending[n];
+                for (int j = from; j < n; j++) {
+                    total = (total + f[j] * h[n - j]) % mod;
+                }
+                if (n > 0) {
+                    f[n] = total * inverse[n] % mod;
+                }
+            }
+            return;
+        }
+        
+        // ===== LEFT HALF, THEN ITS CONTRIBUTION TO THE RIGHT HALF, THEN RIGHT HALF =====
+        int mid = (from + to) >>> 1;
+        exponentiate(f, h, pending, inverse, from, mid, ntt);
+        
+        long[] left = Arrays.copyOfRange(f, from, mid);
+        long[] kernel = Arrays.copyOf(h, to - from); // h[0] is 0
+        long[] contribution = ntt.multiply(left, kernel, to - from);
+        for (int n = mid; n < to; n++) {
+            pending[n] = (pending[n] + contribution[n - from]) % mod;
+        }
+        
+        exponentiate(f, h, pending, inverse, mid, to, ntt);
+    }
+    
+    /**
+     * ===== HELPER CLASS: NUMBER-THEORETIC TRANSFORM =====
+     * Polynomial multiplication modulo a prime p = k * 2^m + 1. The 2^m-th roots of unity
+     * mod p play the role the complex roots play in an FFT.
+     */
+    private static final class NumberTheoreticTransform {
+        // Below this, schoolbook multiplication beats three transforms
+        private static final int SCHOOLBOOK_LIMIT = 64;
+        
+        final long mod;
+        private final long root;        // primitive root of the field
+        private final int maxLog;       // 2^maxLog divides mod - 1
+        
+        private NumberTheoreticTransform(long mod, long root, int maxLog) {
+            this.mod = mod;
+            this.root = root;
+            this.maxLog = maxLog;
+        }
+        
+        /**
+         * Checks the prime and finds a primitive root for it.
+         * 
+         * @param prime Candidate modulus
+         * @param resultLength Longest product that will be needed
+         */
+        static NumberTheoreticTransform forPrime(long prime, int resultLength) {
+            if (prime < 3 || prime >= (1L << 31) || !BigInteger.valueOf(prime).isProbablePrime(40)) {
+                throw new IllegalArgumentException("modulus must be an odd prime below 2^31: " + prime);
+            }
+            int maxLog = Long.numberOfTrailingZeros(prime - 1);
+            // Two operands of up to resultLength coefficients need about 2 * resultLength points
+            if (2L * resultLength > (1L << maxLog)) {
+                throw new IllegalArgumentException("prime " + prime + " only supports transforms of 2^"
+                        + maxLog + " points, too small for " + resultLength + " targets");
+            }
+            return new NumberTheoreticTransform(prime, primitiveRoot(prime), maxLog);
+        }
+        
+        /**
+         * Smallest g whose powers cover the whole field: g^((p-1)/q) != 1 for every prime
+         * factor q of p - 1.
+         */
+        private static long primitiveRoot(long prime) {
+            List<Long> factors = new ArrayList<>();
+            long rest = prime - 1;
+            for (long q = 2; q * q <= rest; q++) {
+                if (rest % q == 0) {
+                    factors.add(q);
+                    while (rest % q == 0) {
+                        rest /= q;
+                    }
+                }
+            }
+            if (rest > 1) {
+                factors.add(rest);
+            }
+            
+            for (long g = 2; ; g++) {
+                boolean primitive = true;
+                for (long q : factors) {
+                    if (power(g, (prime - 1) / q, prime) == 1) {
+                        primitive = false;
+                        break;
+                    }
+                }
+                if (primitive) {
+                    return g;
+                }
+            }
+        }
+        
+        /**
+         * @return a * b truncated to at most limit coefficients
+         */
+        long[] multiply(long[] a, long[] b, int limit) {
+            int resultLength = Math.min(a.length + b.length - 1, limit);
+            
+            // ===== SMALL CASE: SCHOOLBOOK =====
+            if (Math.min(a.length, b.length) <= SCHOOLBOOK_LIMIT) {
+                long[] result = new long[resultLength];
+                for (int i = 0; i < a.length && i < resultLength; i++) {
+                    if (a[i] == 0) {
+                        continue;
+                    }
+                    for (int j = 0; j < b.length && i + j < resultLength; j++) {
+                        result[i + j] = (result[i + j] + a[i] * b[j]) % mod;
+                    }
+                }
+                return result;
+            }
+            
+            // ===== LARGE CASE: TRANSFORM, MULTIPLY POINTWISE, TRANSFORM BACK =====
+            // Operands are trimmed to the limit first - higher terms can't affect the result
+            int aLength = Math.min(a.length, limit);
+            int bLength = Math.min(b.length, limit);
+            int size = Integer.highestOneBit(aLength + bLength - 1);
+            if (size < aLength + bLength - 1) {
+                size <<= 1;
+            }
+            if (Integer.numberOfTrailingZeros(size) > maxLog) {
+                throw new IllegalArgumentException("transform of " + size + " points is too big for prime " + mod);
+            }
+            
+            long[] fa = Arrays.copyOf(a, size);
+            long[] fb = Arrays.copyOf(b, size);
+            Arrays.fill(fa, aLength, size, 0);
+            Arrays.fill(fb, bLength, size, 0);
+            transform(fa, false);
+            transform(fb, false);
+            for (int i = 0; i < size; i++) {
+                fa[i] = fa[i] * fb[i] % mod;
+            }
+            transform(fa, true);
+            return Arrays.copyOf(fa, resultLength);
+        }
+        
+        /**
+         * In-place iterative Cooley-Tukey transform; the inverse also divides by the size.
+         */
+        private void transform(long[] a, boolean invert) {
+            int n = a.length;
+            
+            // ===== BIT-REVERSAL PERMUTATION =====
+            for (int i = 1, j = 0; i < n; i++) {
+                int bit = n >> 1;
+                for (; (j & bit) != 0; bit >>= 1) {
+                    j ^= bit;
+                }
+                j ^= bit;
+                if (i < j) {
+                    long swap = a[i];
+                    a[i] = a[j];
+                    a[j] = swap;
+                }
+            }
+            
+            // ===== BUTTERFLIES =====
+            for (int length = 2; length <= n; length <<= 1) {
+                long step = power(root, (mod - 1) / length, mod);
+                if (invert) {
+                    step = power(step, mod - 2, mod);
+                }
+                int half = length >> 1;
+                for (int start = 0; start < n; start += length) {
+                    long w = 1;
+                    for (int k = 0; k < half; k++) {
+                        long u = a[start + k];
+                        long v = a[start + k + half] * w % mod;
+                        a[start + k] = u + v < mod ? u + v : u + v - mod;
+                        a[start + k + half] = u - v >= 0 ? u - v : u - v + mod;
+                        w = w * step % mod;
+                    }
+                }
+            }
+            
+            if (invert) {
+                long inverseSize = power(n, mod - 2, mod);
+                for (int i = 0; i < n; i++) {
+                    a[i] = a[i] * inverseSize % mod;
+                }
+            }
+        }
+        
+        private static long power(long base, long exponent, long mod) {
+            long result = 1;
+            base %= mod;
+            while (exponent > 0) {
+                if ((exponent & 1) != 0) {
+                    result = result * base % mod;
+                }
+                base = base * base % mod;
+                exponent >>= 1;
+            }
+            return result;
+        }
+    }
+    
+    // Largest part MITM will enumerate: 2^25 longs is 256 MB. Only the quarters of the
+    // four-way split ever get near it (around 100 distinct numbers)
+    private static final int MAX_HALF_COMBINATIONS = 1 << 25;
+    
+    // Halves bigger than this use the four-way split. It's not just smaller - with no
+    // sorting it measured ~5x faster from 40 distinct numbers up
+    private static final int FOUR_WAY_THRESHOLD = 1 << 16;
+    
+    /**
+     * ===== MEET-IN-THE-MIDDLE: LARGE VALUES AND TARGETS =====
+     * Counts the same unique combinations as findUniqueSums, with memory that depends on
+     * the number of combinations per half - never on the target.
+     * 
+     * The DP versions allocate a row per possible sum, so a target in the hundreds of
+     * millions runs out of memory; the recursive version dies past ~30 numbers. Splitting
+     * the numbers in two halves gets that down to 2^(n/2) sums per half - but for our
+     * 40-60 numbers that's still up to 2^30 longs, so big halves are split again into
+     * quarters of 2^(n/4) (see countFourWay). 60 distinct numbers took ~80 s on one core.
+     * 
+     * Approach:
+     * 1. Group the sorted numbers into (value, count) pairs and split the groups (not the
+     *    raw numbers) into two halves. Splitting by group means every unique combination
+     *    is exactly one left part plus one right part, so nothing is counted twice
+     * 2. Enumerate each half's sums - taking each value 0..count times - into a primitive
+     *    long[], dropping sums already past the target, then sort it
+     * 3. Walk the left array up and the right array down with two pointers; when a pair
+     *    hits the target, every equal left sum pairs with every equal right sum
+     * 
+     * Time Complexity: O(H log H) where H is the number of combinations in the bigger half;
+     * O(H) with the four-way split
+     * Space Complexity: O(sqrt(H)) once halves are past 2^16 - independent of the target
+     * 
+     * @param result Target sum to achieve
+     * @param numbers Array of numbers to use (not modified)
+     * @return Number of unique combinations of values that sum to the target
+     * @throws IllegalArgumentException If even a quarter has more than 2^25 combinations
+     *         (around 100 distinct numbers - far too slow to finish anyway)
+     */
+    public static long countUniqueSumsMeetInTheMiddle(int result, int[] numbers) {
+        // ===== EDGE CASE HANDLING =====
+        // Same rules as countUniqueSums
+        if (numbers == null || numbers.length == 0) {
+            return 0;
+        }
+        
+        int[] sorted = sortedCopy(numbers);
+        if (sorted[0] < 0) {
+            return findUniqueSums(result, sorted);
+        }
+        if (result < 0) {
+            return 0;
+        }
+        if (result == 0) {
+            return 1;
+        }
+        
+        // ===== SPLIT THE GROUPS INTO TWO BALANCED HALVES =====
+        ValueGroups groups = ValueGroups.of(sorted);
+        int split = balancedSplit(groups, 0, groups.size);
+        if (combinations(groups, 0, split) > FOUR_WAY_THRESHOLD
+                || combinations(groups, split, groups.size) > FOUR_WAY_THRESHOLD) {
+            return countFourWay(groups, split, result);
+        }
+        
+        // ===== ENUMERATE AND SORT EACH HALF =====
+        long[] left = halfSums(groups, 0, split, result);
+        long[] right = halfSums(groups, split, groups.size, result);
+        Arrays.sort(left);
+        Arrays.sort(right);
+        
+        // ===== TWO POINTERS: LEFT ASCENDING, RIGHT DESCENDING =====
+        long count = 0;
+        int i = 0;
+        int j = right.length - 1;
+        while (i < left.length && j >= 0) {
+            long sum = left[i] + right[j];
+            if (sum < result) {
+                i++;
+            } else if (sum > result) {
+                j--;
+            } else {
+                // Equal sums on either side are different combinations of their half
+                long leftValue = left[i];
+                long leftRun = 0;
+                while (i < left.length && left[i] == leftValue) {
+                    i++;
+                    leftRun++;
+                }
+                long rightValue = right[j];
+                long rightRun = 0;
+                while (j >= 0 && right[j] == rightValue) {
+                    j--;
+                    rightRun++;
+                }
+                count += leftRun * rightRun;
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * ===== FOUR-WAY SPLIT =====
+     * Same count as the two-halves version, for when a half has too many combinations to
+     * hold in memory.
+     * 
+     * Each half is split again, into quarters A, B | C, D of about sqrt(H) sums each. The
+     * left half's sums are the pairs a + b and the right half's are c + d, but those are
+     * never all stored. Instead (the Schroeppel-Shamir idea, with residue classes instead of
+     * heaps, as in Howgrave-Graham and Joux):
+     * 1. Pick a prime M about the size of a quarter. A matching pair of half sums
+     *    L + R = target has L = r (mod M) and R = target - r (mod M) for exactly one r
+     * 2. For each r: bucket B and D by residue once up front, so for every a the b's with
+     *    a + b = r (mod M) are one bucket - about |A||B| / M = sqrt(H) left sums per class.
+     *    Count them in a SumCountMap
+     * 3. Generate the right sums of the matching class the same way and look up target - R
+     * 
+     * Time Complexity: O(H) - every pair sum is generated once, with no sorting
+     * Space Complexity: O(sqrt(H)), e.g. about 2^15 sums per quarter for 60 distinct numbers
+     */
+    private static long countFourWay(ValueGroups groups, int split, int target) {
+        int leftSplit = balancedSplit(groups, 0, split);
+        int rightSplit = balancedSplit(groups, split, groups.size);
+        
+        long[] a = halfSums(groups, 0, leftSplit, target);
+        long[] b = halfSums(groups, leftSplit, split, target);
+        long[] c = halfSums(groups, split, rightSplit, target);
+        long[] d = halfSums(groups, rightSplit, groups.size, target);
+        
+        int largest = Math.max(Math.max(a.length, b.length), Math.max(c.length, d.length));
+        int modulus = BigInteger.valueOf(Math.max(2, largest)).nextProbablePrime().intValueExact();
+        ResidueBuckets bBuckets = new ResidueBuckets(b, modulus);
+        ResidueBuckets dBuckets = new ResidueBuckets(d, modulus);
+        
+        // Residues of A and C up front - the loops below would otherwise divide H times
+        int[] aResidues = residues(a, modulus);
+        int[] cResidues = residues(c, modulus);
+        int targetResidue = target % modulus;
+        
+        long count = 0;
+        SumCountMap leftSums = new SumCountMap();
+        for (int r = 0; r < modulus; r++) {
+            // ===== LEFT SUMS IN CLASS r =====
+            leftSums.clear();
+            for (int i = 0; i < a.length; i++) {
+                int bucket = r - aResidues[i];
+                if (bucket < 0) {
+                    bucket += modulus;
+                }
+                for (int k = bBuckets.start[bucket]; k < bBuckets.start[bucket + 1]; k++) {
+                    long sum = a[i] + bBuckets.sums[k];
+                    if (sum <= target) {
+                        leftSums.add((int) sum, 1);
+                    }
+                }
+            }
+            if (leftSums.size() == 0) {
+                continue;
+            }
+            
+            // ===== RIGHT SUMS IN CLASS target - r: LOOK UP THEIR PARTNER =====
+            int rightResidue = targetResidue - r < 0 ? targetResidue - r + modulus : targetResidue - r;
+            for (int i = 0; i < c.length; i++) {
+                int bucket = rightResidue - cResidues[i];
+                if (bucket < 0) {
+                    bucket += modulus;
+                }
+                for (int k = dBuckets.start[bucket]; k < dBuckets.start[bucket + 1]; k++) {
+                    long sum = c[i] + dBuckets.sums[k];
+                    if (sum <= target) {
+                        count += leftSums.get((int) (target - sum));
+                    }
+                }
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * ===== HELPER FUNCTION: BALANCED SPLIT =====
+     * Picks the split point in groups [from, to) so both sides have about the same number of
+     * combinations (product of count + 1) - balancing by group count would leave one side
+     * much bigger when a few values repeat a lot.
+     */
+    private static int balancedSplit(ValueGroups groups, int from, int to) {
+        double halfTarget = Math.sqrt(combinations(groups, from, to));
+        double leftCombinations = 1;
+        int split = from;
+        while (split < to && leftCombinations * (groups.counts[split] + 1) <= halfTarget) {
+            leftCombinations *= groups.counts[split] + 1;
+            split++;
+        }
+        return split;
+    }
+    
+    private static double combinations(ValueGroups groups, int from, int to) {
+        double combinations = 1;
+        for (int g = from; g < to; g++) {
+            combinations *= groups.counts[g] + 1;
+        }
+        return combinations;
+    }
+    
+    private static int[] residues(long[] values, int modulus) {
+        int[] residues = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            residues[i] = (int) (values[i] % modulus);
+        }
+        return residues;
+    }
+    
+    /**
+     * ===== HELPER CLASS: SUMS BUCKETED BY RESIDUE =====
+     * The sums sorted by (sum mod M), with start[r]..start[r + 1] being residue class r -
+     * like a counting sort, so there's no per-bucket array.
+     */
+    private static final class ResidueBuckets {
+        final int[] start;
+        final long[] sums;
+        
+        ResidueBuckets(long[] values, int modulus) {
+            start = new int[modulus + 1];
+            for (long value : values) {
+                start[(int) (value % modulus) + 1]++;
+            }
+            for (int r = 0; r < modulus; r++) {
+                start[r + 1] += start[r];
+            }
+            
+            sums = new long[values.length];
+            int[] next = Arrays.copyOf(start, modulus);
+            for (long value : values) {
+                sums[next[(int) (value % modulus)]++] = value;
+            }
+        }
+    }
+    
+    /**
+     * ===== HELPER FUNCTION: ALL SUMS OF ONE HALF =====
+     * Every sum reachable by taking 0..count copies of each group in [from, to), with sums
+     * above the target dropped early (all values are non-negative, so they can't come back).
+     */
+    private static long[] halfSums(ValueGroups groups, int from, int to, int target) {
+        long[] sums = {0};
+        int size = 1;
+        
+        for (int g = from; g < to; g++) {
+            int value = groups.values[g];
+            int count = groups.counts[g];
+            
+            long capacity = (long) size * (count + 1);
+            if (capacity > MAX_HALF_COMBINATIONS) {
+                // Only a problem if the pruned sums really don't fit
+                capacity = MAX_HALF_COMBINATIONS;
+            }
+            long[] next = new long[(int) capacity];
+            int nextSize = 0;
+            
+            for (int i = 0; i < size; i++) {
+                long sum = sums[i];
+                for (int copies = 0; copies <= count && sum <= target; copies++) {
+                    if (nextSize == next.length) {
+                        throw new IllegalArgumentException(
+                                "too many combinations for meet-in-the-middle (over " + MAX_HALF_COMBINATIONS + " per part)");
+                    }
+                    next[nextSize++] = sum;
+                    sum += value;
+                }
+            }
+            
+            sums = next;
+            size = nextSize;
+        }
+        
+        return Arrays.copyOf(sums, size);
+    }
+    
+    /**
+     * ===== HELPER FUNCTION: SORTED COPY =====
+     * Sorting the caller's array in place surprised people, so the newer methods sort a copy.
+     */
+    private static int[] sortedCopy(int[] numbers) {
+        int[] sorted = numbers.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+    
+    /**
+     * ===== HELPER CLASS: DISTINCT VALUES WITH MULTIPLICITIES =====
+     * A sorted array collapsed into parallel (value, count) arrays, e.g.
+     * [1, 2, 2, 5, 5, 5] becomes values [1, 2, 5] and counts [1, 2, 3].
+     */
+    private static final class ValueGroups {
+        final int[] values;
+        final int[] counts;
+        final int size;
+        
+        private ValueGroups(int[] values, int[] counts, int size) {
+            this.values = values;
+            this.counts = counts;
+            this.size = size;
+        }
+        
+        static ValueGroups of(int[] sorted) {
+            int[] values = new int[sorted.length];
+            int[] counts = new int[sorted.length];
+            int size = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (size > 0 && values[size - 1] == sorted[i]) {
+                    counts[size - 1]++;
+                } else {
+                    values[size] = sorted[i];
+                    counts[size] = 1;
+                    size++;
+                }
+            }
+            return new ValueGroups(values, counts, size);
+        }
+    }
+    
     /**
      * ===== TEST METHOD - COMPREHENSIVE TESTING =====
      * Test method to demonstrate the solution
@@ -165,6 +1783,7 @@ public class Question2_UniqueSums {
         System.out.println("Expected: 3 (1+2+3+4=10, 1+4+5=10, 2+3+5=10)");
         System.out.println("Actual: " + findUniqueSums(result1, numbers1));
         System.out.println("DP approach: " + findUniqueSumsDP(result1, numbers1));
+        System.out.println("Counting engine: " + countUniqueSums(result1, numbers1));
         System.out.println();
         
         // Test case 2 from the question
@@ -174,6 +1793,7 @@ public class Question2_UniqueSums {
         System.out.println("Expected: 1 (1+4+5+7=17)");
         System.out.println("Actual: " + findUniqueSums(result2, numbers2));
         System.out.println("DP approach: " + findUniqueSumsDP(result2, numbers2));
+        System.out.println("Counting engine: " + countUniqueSums(result2, numbers2));
         System.out.println();
         
         // ===== EDGE CASE TESTING =====
@@ -184,6 +1804,7 @@ public class Question2_UniqueSums {
         System.out.println("Expected: 2 (2+3=5, 1+4=5 but 4 not in array, so just 2+3)");
         System.out.println("Actual: " + findUniqueSums(result3, numbers3));
         System.out.println("DP approach: " + findUniqueSumsDP(result3, numbers3));
+        System.out.println("Counting engine: " + countUniqueSums(result3, numbers3));
         System.out.println();
         
         int result4 = 0;
@@ -192,6 +1813,7 @@ public class Question2_UniqueSums {
         System.out.println("Expected: 1 (empty subset sums to 0)");
         System.out.println("Actual: " + findUniqueSums(result4, numbers4));
         System.out.println("DP approach: " + findUniqueSumsDP(result4, numbers4));
+        System.out.println("Counting engine: " + countUniqueSums(result4, numbers4));
         System.out.println();
         
         int result5 = 10;
@@ -200,6 +1822,8 @@ public class Question2_UniqueSums {
         System.out.println("Expected: 1 (5+5=10)");
         System.out.println("Actual: " + findUniqueSums(result5, numbers5));
         System.out.println("DP approach: " + findUniqueSumsDP(result5, numbers5));
+        System.out.println("Counting engine: " + countUniqueSums(result5, numbers5));
+        System.out.println("Parallel backtracking: " + findUniqueSumsParallel(result5, numbers5));
         System.out.println();
         
         // Test with empty array - this caught a null pointer exception in early version
@@ -209,5 +1833,111 @@ public class Question2_UniqueSums {
         System.out.println("Expected: 0 (no numbers to use)");
         System.out.println("Actual: " + findUniqueSums(result6, numbers6));
         System.out.println("DP approach: " + findUniqueSumsDP(result6, numbers6));
+        System.out.println("Counting engine: " + countUniqueSums(result6, numbers6));
+        System.out.println();
+        
+        // ===== COUNTING ENGINE: LARGER INPUT =====
+        // 40 numbers is far past what the Set-based version can enumerate
+        int result7 = 1000;
+        int[] numbers7 = new int[40];
+        for (int i = 0; i < numbers7.length; i++) {
+            numbers7[i] = 10 + (i % 20) * 5;
+        }
+        System.out.println("Test 7: result = " + result7 + ", 40 numbers with repeats");
+        System.out.println("Counting engine: " + countUniqueSums(result7, numbers7));
+        System.out.println("Meet in the middle: " + countUniqueSumsMeetInTheMiddle(result7, numbers7));
+        System.out.println("Parallel backtracking: " + findUniqueSumsParallel(result7, numbers7));
+        System.out.println();
+        
+        // ===== MEET IN THE MIDDLE: HUGE TARGET =====
+        // A DP row for this target alone would need ~800 MB. Scaling 1..40 by a million
+        // doesn't change the answer, so the small version cross-checks it
+        int result8 = 100_000_000;
+        int[] numbers8 = new int[40];
+        int[] smallNumbers8 = new int[40];
+        for (int i = 0; i < numbers8.length; i++) {
+            smallNumbers8[i] = i + 1;
+            numbers8[i] = 1_000_000 * (i + 1);
+        }
+        System.out.println("Test 8: result = " + result8 + ", numbers = 1M, 2M, ..., 40M");
+        System.out.println("Expected: " + countUniqueSums(100, smallNumbers8) + " (same as target 100 with 1..40)");
+        System.out.println("Meet in the middle: " + countUniqueSumsMeetInTheMiddle(result8, numbers8));
+        System.out.println();
+        
+        // ===== DP MODES: OVERFLOW AND SPARSE =====
+        // 40 ones, target 20: C(40, 20) = 137846528820 subsets, which overflows the int table
+        int result9 = 20;
+        int[] numbers9 = new int[40];
+        Arrays.fill(numbers9, 1);
+        System.out.println("Test 9: result = " + result9 + ", forty 1s");
+        System.out.println("Expected: 137846528820 (C(40, 20) index subsets)");
+        System.out.println("DP approach (int table): " + findUniqueSumsDP(result9, numbers9));
+        System.out.println("Rolling DP: " + findUniqueSumsDPRolling(result9, numbers9));
+        System.out.println("BigInteger DP: " + findUniqueSumsDPBig(result9, numbers9));
+        System.out.println("Modular DP (mod 1e9+7): " + findUniqueSumsDPModular(result9, numbers9, 1_000_000_007L));
+        System.out.println("Sparse DP: " + findUniqueSumsDPSparse(result9, numbers9));
+        System.out.println();
+        
+        // Huge target, few reachable sums - the sparse map only ever holds 8 entries
+        int result10 = 300_000_000;
+        int[] numbers10 = {100_000_000, 200_000_000, 300_000_000};
+        System.out.println("Test 10: result = " + result10 + ", numbers = " + Arrays.toString(numbers10));
+        System.out.println("Expected: 2 (300M, 100M+200M)");
+        System.out.println("Sparse DP: " + findUniqueSumsDPSparse(result10, numbers10));
+        System.out.println();
+        
+        // ===== FEASIBILITY ONLY =====
+        System.out.println("Test 11: can [1, 2, 4, 7, 5] reach 17? " + canReach(17, numbers2)); // Expected: true
+        System.out.println("Test 11: can [5, 5, 5] reach 12? " + canReach(12, numbers5)); // Expected: false
+        System.out.println("Test 11: reachable sums of [5, 5, 5] up to 12: " + reachableSums(12, numbers5)); // Expected: {0, 5, 10}
+        System.out.println();
+        
+        // ===== LAZY ENUMERATION =====
+        // Reusable buffer - nothing allocated per combination
+        System.out.println("Test 12: combinations of " + Arrays.toString(numbers1) + " summing to " + result1);
+        UniqueCombinations combinations = UniqueCombinations.of(result1, numbers1);
+        int[] buffer = new int[combinations.maxLength()];
+        int length;
+        while ((length = combinations.next(buffer)) >= 0) {
+            System.out.println("  " + Arrays.toString(Arrays.copyOf(buffer, length)));
+        }
+        // Early termination: the stream stops searching after the first 3
+        System.out.println("First 3 of the 24049686 in Test 7:");
+        UniqueCombinations.of(result7, numbers7).stream().limit(3)
+                .forEach(combination -> System.out.println("  " + Arrays.toString(combination)));
+        System.out.println();
+        
+        // ===== PREPARED QUERIES =====
+        // One DP pass, then every target up to 15 is a lookup; the input stays unsorted
+        int[] pool = {5, 1, 4, 2, 3};
+        PreparedSums prepared = PreparedSums.prepare(pool, 15);
+        System.out.print("Test 13: counts for targets 0..15 of " + Arrays.toString(pool) + ":");
+        for (int target = 0; target <= 15; target++) {
+            System.out.print(" " + prepared.count(target));
+        }
+        System.out.println();
+        System.out.println("Same pool in another order is a cache hit: "
+                + (PreparedSums.prepare(new int[] {3, 2, 1, 5, 4}, 10) == prepared)); // Expected: true
+        System.out.println();
+        
+        // ===== GENERATING FUNCTIONS (NTT) =====
+        // Cross-check every target against the DP, reduced mod the same prime. 60 numbers
+        // keeps every exact count below 2^60, so the DP's longs don't overflow
+        int maxTarget14 = 1000;
+        int[] numbers14 = new int[60];
+        for (int i = 0; i < numbers14.length; i++) {
+            numbers14[i] = 1 + (i * 37) % 150;
+        }
+        long[] viaNTT = countUniqueSumsModPrime(maxTarget14, numbers14);
+        PreparedSums viaDP = PreparedSums.compute(numbers14, maxTarget14);
+        int mismatches = 0;
+        for (int target = 0; target <= maxTarget14; target++) {
+            if (viaNTT[target] != viaDP.count(target) % DEFAULT_NTT_PRIME) {
+                mismatches++;
+            }
+        }
+        System.out.println("Test 14: NTT vs DP for targets 0.." + maxTarget14 + ", 60 numbers");
+        System.out.println("Count for " + maxTarget14 + " mod " + DEFAULT_NTT_PRIME + ": " + viaNTT[maxTarget14]);
+        System.out.println("Mismatches: " + mismatches); // Expected: 0
     }
 }
@@ -1,4 +1,20 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
 
 public class Question3_MakeArrayZero {
     
@@ -104,6 +120,140 @@ public class Question3_MakeArrayZero {
         return true;
     }
     
+    /**
+     * ===== LINEAR APPROACH: SINGLE PASS =====
+     * Same decision as canMakeArrayZero, in one pass over the array.
+     * 
+     * canMakeArrayZero re-checks the prefix 0..i for every positive a[i], which is O(n^2)
+     * on our million-element arrays. But those prefix checks all ask the same question:
+     * has there been a descent (a[j] < a[j-1]) at or before i? So it's enough to remember
+     * whether a descent has been seen - the first positive element at or after it is
+     * where the old method would have returned 0.
+     * 
+     * Time Complexity: O(n), and it stops at the first offending element
+     * Space Complexity: O(1)
+     * 
+     * @param arr Array of positive integers
+     * @return 1 if possible to make all elements zero (except first), 0 otherwise
+     */
+    public static int canMakeArrayZeroLinear(int[] arr) {
+        if (arr == null) {
+            return 0;
+        }
+        ZeroDecider decider = new ZeroDecider();
+        for (int value : arr) {
+            if (!decider.accept(value)) {
+                break; // early exit - the answer is already 0
+            }
+        }
+        return decider.result();
+    }
+    
+    /**
+     * Streaming version of canMakeArrayZeroLinear: values are pulled one at a time, so the
+     * decision can be made while the data is still arriving and reading stops as soon as
+     * the answer is known to be 0.
+     * 
+     * @param values Elements of the array, in order
+     * @return The decider after the last value it needed, with the result and offending index
+     */
+    public static ZeroDecider decide(IntStream values) {
+        return decide(values.iterator());
+    }
+    
+    /**
+     * @param values Elements of the array, in order
+     * @return The decider after the last value it needed, with the result and offending index
+     */
+    public static ZeroDecider decide(PrimitiveIterator.OfInt values) {
+        ZeroDecider decider = new ZeroDecider();
+        while (values.hasNext() && decider.accept(values.nextInt())) {
+            // keep feeding until done or decided
+        }
+        return decider;
+    }
+    
+    /**
+     * ===== HELPER CLASS: INCREMENTAL DECISION =====
+     * Takes the array one element at a time and tracks the canMakeArrayZero rules:
+     * 1. A single element is always fine; otherwise a[0] must be positive
+     * 2. Once a descent a[i] < a[i-1] has been seen, any positive element from there on fails
+     * 
+     * accept() returns false as soon as the answer is known to be 0; result() gives the
+     * answer for everything accepted so far.
+     */
+    public static final class ZeroDecider {
+        private long count;
+        private int first;
+        private int previous;
+        private boolean descentSeen;
+        private long offendingIndex = -1;
+        
+        /**
+         * @param value Next element of the array
+         * @return false once the array can no longer be made zero (further values are ignored)
+         */
+        public boolean accept(int value) {
+            if (offendingIndex >= 0) {
+                return false;
+            }
+            
+            long index = count++;
+            if (index == 0) {
+                first = value;
+                previous = value;
+                return true;
+            }
+            
+            // ===== RULE 1: FIRST ELEMENT MUST BE POSITIVE =====
+            // Only matters once there's a second element
+            if (first <= 0) {
+                offendingIndex = 0;
+                return false;
+            }
+            
+            // ===== RULE 2: NO POSITIVE ELEMENT AFTER A DESCENT =====
+            if (value < previous) {
+                descentSeen = true;
+            }
+            if (descentSeen && value > 0) {
+                offendingIndex = index;
+                return false;
+            }
+            
+            previous = value;
+            return true;
+        }
+        
+        // Lets the batch workers reuse one decider across records
+        void reset() {
+            count = 0;
+            descentSeen = false;
+            offendingIndex = -1;
+        }
+        
+        /**
+         * @return 1 if the elements accepted so far can be made zero (except first), 0 otherwise
+         */
+        public int result() {
+            return count > 0 && offendingIndex < 0 ? 1 : 0;
+        }
+        
+        /**
+         * @return Index of the first element that makes the answer 0, or -1 if there isn't one
+         */
+        public long offendingIndex() {
+            return offendingIndex;
+        }
+        
+        /**
+         * @return How many elements were accepted before the decision was made
+         */
+        public long count() {
+            return count;
+        }
+    }
+    
     /**
      * ===== ALTERNATIVE APPROACH: SIMULATION =====
      * Alternative approach using simulation for smaller arrays
@@ -111,6 +261,16 @@ public class Question3_MakeArrayZero {
      * 
      * Added this after the mathematical approach - wanted to make sure I wasn't missing anything.
      * Sometimes it's good to have a backup approach to verify your logic.
+     * 
+     * The first version looped over the array up to 1000 times, one subtraction per element
+     * per pass. With large values (a[0] = 1, a[1] = 2,000,000,000) that cap runs out long
+     * before the array reaches zero, so the answer was wrong. Now the simulation runs
+     * ExactSimulation instead: every run of "subtract a[i-1] from a[i]" is collapsed into
+     * one division, the same shortcut Euclid's algorithm takes over repeated subtraction.
+     * It's still exact - it only ever performs legal operations, just many at a time.
+     * 
+     * Time Complexity: O(n) divisions, however large the values are
+     * Space Complexity: O(n) for the working copy
      */
     public static int canMakeArrayZeroSimulation(int[] arr) {
         // ===== EDGE CASE HANDLING =====
@@ -119,54 +279,601 @@ public class Question3_MakeArrayZero {
             return 0;
         }
         
+        // ===== RUN THE SIMULATION TO THE END =====
+        ExactSimulation simulation = new ExactSimulation(arr);
+        while (simulation.hasNext()) {
+            simulation.next();
+        }
+        return simulation.succeeded() ? 1 : 0;
+    }
+    
+    /**
+     * Operations the simulation performs, for auditing a result. The trace is generated
+     * lazily - nothing is simulated until the caller iterates - and each entry is a whole
+     * run of repeated subtractions on one index, so it has at most 2(n - 1) entries.
+     * Each iteration starts a fresh simulation on its own copy of the array.
+     * 
+     * @param arr Array of positive integers (not modified)
+     * @return The collapsed operations, in the order they're applied
+     */
+    public static Iterable<Operation> operationTrace(int[] arr) {
+        int[] snapshot = arr == null ? new int[0] : arr.clone();
+        return () -> new ExactSimulation(snapshot);
+    }
+    
+    /**
+     * ===== HELPER CLASS: ONE COLLAPSED OPERATION =====
+     * "a[index] = a[index] - subtrahend", applied times times in a row.
+     */
+    public static final class Operation {
+        private final int index;
+        private final int subtrahend;
+        private final int times;
+        private final int valueAfter;
+        
+        Operation(int index, int subtrahend, int times, int valueAfter) {
+            this.index = index;
+            this.subtrahend = subtrahend;
+            this.times = times;
+            this.valueAfter = valueAfter;
+        }
+        
+        public int index() {
+            return index;
+        }
+        
+        /**
+         * @return The value of a[index - 1] while these operations were applied
+         */
+        public int subtrahend() {
+            return subtrahend;
+        }
+        
+        /**
+         * @return How many single operations this entry stands for
+         */
+        public int times() {
+            return times;
+        }
+        
+        /**
+         * @return a[index] once all of them have been applied
+         */
+        public int valueAfter() {
+            return valueAfter;
+        }
+        
+        @Override
+        public String toString() {
+            return "a[" + index + "] -= " + subtrahend + " (x" + times + ") -> " + valueAfter;
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: EXACT SIMULATION =====
+     * Steps through the operations on a copy of the array, one collapsed Operation per next().
+     * 
+     * The plan (a[0] stays fixed, and each operation needs a[i] >= a[i-1] > 0):
+     * 1. Left to right, bring every a[i] down to a[0] by subtracting a[0] from it a[i]/a[0] - 1
+     *    times. a[i-1] is already a[0] at that point, so every step is legal.
+     * 2. Right to left, subtract a[0] once more, so a[i] becomes 0 while a[i-1] is still a[0].
+     * 
+     * It gets stuck when a[i] isn't a multiple of a[0] (the remainder is smaller than a[i-1]
+     * and can never be reduced), when something is negative, or when a positive element comes
+     * after a zero. Elements already zero at the end of the array are left alone.
+     */
+    public static final class ExactSimulation implements Iterator<Operation> {
+        private final int[] current;
+        private int index = 1;
+        private int lastPositive;
+        private boolean reducing = true; // phase 1; false once we're zeroing from the right
+        private boolean failed;
+        private Operation pending;
+        
+        /**
+         * @param arr Array of positive integers (not modified)
+         */
+        public ExactSimulation(int[] arr) {
+            this.current = arr.clone();
+            if (current.length == 0 || (current.length > 1 && current[0] <= 0)) {
+                failed = true;
+                reducing = false;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (pending == null) {
+                pending = step();
+            }
+            return pending != null;
+        }
+        
+        @Override
+        public Operation next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Operation operation = pending;
+            pending = null;
+            return operation;
+        }
+        
+        /**
+         * @return true if the simulation reached all zeros (except first)
+         * @throws IllegalStateException if the simulation hasn't been run to the end yet
+         */
+        public boolean succeeded() {
+            if (hasNext()) {
+                throw new IllegalStateException("simulation has not finished");
+            }
+            return !failed;
+        }
+        
+        /**
+         * @return Copy of the array as the operations so far have left it
+         */
+        public int[] current() {
+            return current.clone();
+        }
+        
+        private Operation step() {
+            if (failed) {
+                return null;
+            }
+            int first = current[0];
+            
+            // ===== PHASE 1: BRING EVERYTHING DOWN TO a[0] =====
+            while (reducing) {
+                if (index == current.length) {
+                    reducing = false;
+                    lastPositive = current.length - 1;
+                    break;
+                }
+                int i = index++;
+                int value = current[i];
+                if (value < 0) {
+                    failed = true;
+                    return null;
+                }
+                if (value == 0) {
+                    // Trailing zeros are already done, but a positive element after a zero can't move
+                    for (int j = i + 1; j < current.length; j++) {
+                        if (current[j] != 0) {
+                            failed = true;
+                            return null;
+                        }
+                    }
+                    reducing = false;
+                    lastPositive = i - 1;
+                    break;
+                }
+                
+                int times = value / first;
+                int remainder = value % first;
+                if (remainder != 0) {
+                    // Stuck at the remainder - report how far it got, then stop
+                    failed = true;
+                    if (times == 0) {
+                        return null;
+                    }
+                    current[i] = remainder;
+                    return new Operation(i, first, times, remainder);
+                }
+                if (times > 1) {
+                    current[i] = first;
+                    return new Operation(i, first, times - 1, first);
+                }
+            }
+            
+            // ===== PHASE 2: ZERO FROM THE RIGHT =====
+            if (lastPositive >= 1) {
+                int i = lastPositive--;
+                current[i] = 0;
+                return new Operation(i, first, 1, 0);
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * ===== EXACT DECISION: NO SIMULATION =====
+     * The same answer as canMakeArrayZeroSimulation, without performing any operations.
+     * 
+     * ExactSimulation only gets stuck when an element isn't a non-negative multiple of a[0],
+     * or a positive element comes after a zero. So the decision is:
+     * 1. a[0] must be positive (for two or more elements)
+     * 2. The elements up to the first non-positive one must all be multiples of a[0]
+     * 3. Everything from there on must be exactly 0
+     * 
+     * Step 2 tests every element against the same divisor, so it uses a DivisibilityChecker
+     * instead of a hardware division per element.
+     * 
+     * Time Complexity: O(n), one multiplication per element
+     * Space Complexity: O(1)
+     * 
+     * @param arr Array of positive integers
+     * @return 1 if possible to make all elements zero (except first), 0 otherwise
+     */
+    public static int canMakeArrayZeroExact(int[] arr) {
+        if (arr == null || arr.length == 0) {
+            return 0;
+        }
         if (arr.length == 1) {
             return 1;
         }
-        
-        // ===== CHECK FIRST ELEMENT =====
-        // Step 1: Check if first element is positive
         if (arr[0] <= 0) {
             return 0;
         }
         
-        // ===== SETUP: CREATE COPY FOR SIMULATION =====
-        // Step 2: Create a copy of the array to simulate operations
-        int[] currentArray = arr.clone();
+        // ===== POSITIVE PREFIX: ALL MULTIPLES OF a[0]? =====
+        int end = 1;
+        while (end < arr.length && arr[end] > 0) {
+            end++;
+        }
+        if (DivisibilityChecker.forDivisor(arr[0]).firstNonMultiple(arr, 1, end) >= 0) {
+            return 0;
+        }
+        
+        // ===== REST: ALL ZERO? =====
+        for (int i = end; i < arr.length; i++) {
+            if (arr[i] != 0) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+    
+    /**
+     * ===== HELPER CLASS: DIVISION-FREE DIVISIBILITY =====
+     * Tests ints for divisibility by one fixed divisor using a multiplication per value
+     * instead of a division.
+     * 
+     * The trick (Lemire, Kaser & Kurz, "Faster Remainder by Direct Computation"): for a
+     * divisor d and c = ceil(2^64 / d), the low 64 bits of n * c are the fractional part of
+     * n / d scaled by 2^64. That's below c exactly when n % d == 0 - for every 32-bit n, so
+     * one unsigned compare replaces the division. c is worked out once per divisor.
+     * 
+     * Edge cases:
+     * - Negative values: divisibility doesn't depend on sign, so |n| is used. As a long, that
+     *   still works for Integer.MIN_VALUE
+     * - Zero: 0 * c = 0, divisible by anything
+     * - Divisor 1: c wraps around to 0, and every n * c = 0 passes, as it should
+     * - Negative divisors behave like |d|; divisor 0 is rejected
+     */
+    public static final class DivisibilityChecker {
+        private static final int BATCH = 8;
         
-        // ===== SIMULATION LOOP: APPLY OPERATIONS =====
-        // Step 3: Try to reduce all elements (except first) to zero
-        // I'll perform operations in a systematic way
-        boolean changed = true;
-        int maxIterations = 1000; // Prevent infinite loops - learned this the hard way
-        int iterations = 0;
+        private final long divisor;
+        private final long multiplier; // c = ceil(2^64 / divisor), as an unsigned long
+        private final long limit;      // c - 1, the largest passing product
         
-        while (changed && iterations < maxIterations) {
-            changed = false;
-            iterations++;
+        private DivisibilityChecker(long divisor) {
+            this.divisor = divisor;
+            this.multiplier = Long.divideUnsigned(-1L, divisor) + 1;
+            this.limit = multiplier - 1;
+        }
+        
+        /**
+         * @param divisor Any int except 0
+         * @return Checker for that divisor
+         */
+        public static DivisibilityChecker forDivisor(int divisor) {
+            if (divisor == 0) {
+                throw new IllegalArgumentException("divisor must not be zero");
+            }
+            return new DivisibilityChecker(Math.abs((long) divisor));
+        }
+        
+        public long divisor() {
+            return divisor;
+        }
+        
+        /**
+         * @param value Any int
+         * @return true if value is a multiple of the divisor
+         */
+        public boolean isDivisible(int value) {
+            return Long.compareUnsigned(Math.abs((long) value) * multiplier, limit) <= 0;
+        }
+        
+        /**
+         * Checks values[from..to) a batch of 8 at a time. Inside a batch the tests are combined
+         * with non-short-circuit & so there's one branch per batch instead of one per element;
+         * only a failing batch gets rescanned to find the exact index.
+         * 
+         * @param values Values to check
+         * @param from First index to check (inclusive)
+         * @param to Last index to check (exclusive)
+         * @return Index of the first value that isn't a multiple of the divisor, or -1 if all are
+         */
+        public int firstNonMultiple(int[] values, int from, int to) {
+            Objects.checkFromToIndex(from, to, values.length);
             
-            // ===== APPLY DECREMENT OPERATIONS =====
-            // Try to reduce each element (except first) by performing operations
-            for (int i = 1; i < currentArray.length; i++) {
-                if (currentArray[i] > 0 && currentArray[i-1] > 0) {
-                    // Perform the decrement operation: a[i] = a[i] - a[i-1]
-                    int newValue = currentArray[i] - currentArray[i-1];
-                    if (newValue >= 0) {
-                        currentArray[i] = newValue;
-                        changed = true;
+            int i = from;
+            for (; i + BATCH <= to; i += BATCH) {
+                boolean allDivisible = isDivisible(values[i]) & isDivisible(values[i + 1])
+                        & isDivisible(values[i + 2]) & isDivisible(values[i + 3])
+                        & isDivisible(values[i + 4]) & isDivisible(values[i + 5])
+                        & isDivisible(values[i + 6]) & isDivisible(values[i + 7]);
+                if (!allDivisible) {
+                    break; // the scalar loop below finds which one
+                }
+            }
+            for (; i < to; i++) {
+                if (!isDivisible(values[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+    
+    /**
+     * ===== BATCH MODE: MEMORY-MAPPED RECORD FILES =====
+     * Runs the canMakeArrayZero decision over every record in a binary file, straight off the
+     * mapped bytes - nothing gets parsed into an int[] first.
+     * 
+     * File format: records back to back, each one an int32 length n followed by n int32
+     * elements. Big-endian by default, which is what DataOutputStream writes.
+     * 
+     * Approach:
+     * 1. Map the file read-only in 1 GB windows (a single MappedByteBuffer can't be bigger)
+     * 2. Quick sequential pass over the length prefixes only, remembering where every 64th
+     *    record starts - each group of 64 records is one segment
+     * 3. Evaluate the segments in parallel on the common ForkJoinPool. Elements go from the
+     *    mapped window straight into a ZeroDecider, and the rest of a record is skipped as
+     *    soon as its answer is known
+     * 4. A segment's 64 answers fill exactly one long of the result bitmap, so no two
+     *    workers ever write the same word
+     * 
+     * Time Complexity: O(R + E) for R records and E elements, spread across the worker threads
+     * Space Complexity: O(R / 64) for the segment index and the bitmap
+     * 
+     * @param file Length-prefixed int32 records
+     * @return Result bitmap (bit i set means record i can be made zero) and throughput
+     * @throws IOException If the file can't be read, or a record is truncated or has a negative length
+     */
+    public static BatchResult canMakeArrayZeroBatch(Path file) throws IOException {
+        return canMakeArrayZeroBatch(file, ByteOrder.BIG_ENDIAN);
+    }
+    
+    /**
+     * @param file Length-prefixed int32 records
+     * @param order Byte order of the lengths and elements
+     * @return Result bitmap (bit i set means record i can be made zero) and throughput
+     * @throws IOException If the file can't be read, or a record is truncated or has a negative length
+     */
+    public static BatchResult canMakeArrayZeroBatch(Path file, ByteOrder order) throws IOException {
+        return canMakeArrayZeroBatch(file, order, MappedRecords.MAP_WINDOW);
+    }
+    
+    // Window size is only configurable so records straddling two windows can be exercised
+    // without multi-GB test files
+    static BatchResult canMakeArrayZeroBatch(Path file, ByteOrder order, int windowBytes) throws IOException {
+        if (windowBytes < Integer.BYTES || Integer.bitCount(windowBytes) != 1) {
+            throw new IllegalArgumentException("windowBytes must be a power of two >= 4: " + windowBytes);
+        }
+        
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedRecords records = MappedRecords.map(channel, order, windowBytes);
+            long[] segmentStarts = records.indexSegments();
+            long[] bitmap = new long[segmentStarts.length];
+            if (bitmap.length > 0) {
+                ForkJoinPool.commonPool().invoke(
+                        new SegmentTask(records, segmentStarts, bitmap, 0, bitmap.length));
+            }
+            return new BatchResult(bitmap, records.recordCount(), System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: BATCH RESULT =====
+     * One bit per record plus how long the whole batch took.
+     */
+    public static final class BatchResult {
+        private final long[] bitmap;
+        private final long records;
+        private final long elapsedNanos;
+        
+        BatchResult(long[] bitmap, long records, long elapsedNanos) {
+            this.bitmap = bitmap;
+            this.records = records;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        /**
+         * @param record Index of the record in the file
+         * @return 1 if that record can be made zero (except first), 0 otherwise
+         */
+        public int result(long record) {
+            if (record < 0 || record >= records) {
+                throw new IndexOutOfBoundsException("record " + record + " of " + records);
+            }
+            return (int) (bitmap[(int) (record >>> 6)] >>> record) & 1;
+        }
+        
+        /**
+         * @return Copy of the bitmap - bit (i % 64) of word i / 64 is the result for record i
+         */
+        public long[] bitmap() {
+            return bitmap.clone();
+        }
+        
+        public long records() {
+            return records;
+        }
+        
+        /**
+         * @return How many records can be made zero
+         */
+        public long successes() {
+            long successes = 0;
+            for (long word : bitmap) {
+                successes += Long.bitCount(word);
+            }
+            return successes;
+        }
+        
+        /**
+         * @return Wall-clock time for mapping, indexing and evaluating
+         */
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+        
+        public double recordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: MAPPED RECORD FILE =====
+     * The file as a list of read-only windows, read one int32 at a time by absolute offset.
+     * 
+     * Every value in the file is 4 bytes and starts at a multiple of 4, and every window is a
+     * power of two of at least 4 bytes - so a value never straddles two windows, even when
+     * a record does. Absolute reads don't touch the buffers' positions, so all the workers
+     * can share the same windows.
+     */
+    private static final class MappedRecords {
+        // A single MappedByteBuffer can't exceed Integer.MAX_VALUE bytes
+        static final int MAP_WINDOW = 1 << 30;
+        static final int SEGMENT_RECORDS = Long.SIZE; // one bitmap word per segment
+        
+        private final MappedByteBuffer[] windows;
+        private final int windowShift;
+        private final long windowMask;
+        private final long size;
+        private long recordCount;
+        
+        private MappedRecords(MappedByteBuffer[] windows, int windowBytes, long size) {
+            this.windows = windows;
+            this.windowShift = Integer.numberOfTrailingZeros(windowBytes);
+            this.windowMask = windowBytes - 1;
+            this.size = size;
+        }
+        
+        static MappedRecords map(FileChannel channel, ByteOrder order, int windowBytes) throws IOException {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IOException("file size " + size + " is not a whole number of int32 values");
+            }
+            
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((size + windowBytes - 1) / windowBytes)];
+            for (int w = 0; w < windows.length; w++) {
+                long windowStart = (long) w * windowBytes;
+                int length = (int) Math.min(windowBytes, size - windowStart);
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+                windows[w].order(order);
+            }
+            return new MappedRecords(windows, windowBytes, size);
+        }
+        
+        int intAt(long offset) {
+            return windows[(int) (offset >>> windowShift)].getInt((int) (offset & windowMask));
+        }
+        
+        /**
+         * Hops from length prefix to length prefix, without reading any elements.
+         * 
+         * @return Byte offset of the first record of every segment
+         * @throws IOException If a record runs past the end of the file or has a negative length
+         */
+        long[] indexSegments() throws IOException {
+            long[] starts = new long[16];
+            int segments = 0;
+            long offset = 0;
+            long record = 0;
+            
+            while (offset < size) {
+                if (record % SEGMENT_RECORDS == 0) {
+                    if (segments == starts.length) {
+                        starts = Arrays.copyOf(starts, segments * 2);
                     }
+                    starts[segments++] = offset;
                 }
+                
+                int length = intAt(offset);
+                long available = (size - offset) / Integer.BYTES - 1;
+                if (length < 0 || length > available) {
+                    throw new IOException("record " + record + " at byte " + offset + " has length "
+                            + length + " but only " + available + " values are left in the file");
+                }
+                offset += (length + 1L) * Integer.BYTES;
+                record++;
             }
+            
+            recordCount = record;
+            return Arrays.copyOf(starts, segments);
         }
         
-        // ===== CHECK RESULT: ALL ELEMENTS ZERO? =====
-        // Step 4: Check if all elements (except first) are zero
-        for (int i = 1; i < currentArray.length; i++) {
-            if (currentArray[i] != 0) {
-                return 0; // Not possible
+        long recordCount() {
+            return recordCount;
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: PARALLEL SEGMENT EVALUATION =====
+     * Splits the segment range in half until it's small enough, then evaluates each segment
+     * record by record and writes its bitmap word.
+     */
+    private static final class SegmentTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int SEGMENTS_PER_TASK = 16; // 1024 records
+        
+        private final transient MappedRecords records;
+        private final transient long[] segmentStarts;
+        private final transient long[] bitmap;
+        private final int from;
+        private final int to;
+        
+        SegmentTask(MappedRecords records, long[] segmentStarts, long[] bitmap, int from, int to) {
+            this.records = records;
+            this.segmentStarts = segmentStarts;
+            this.bitmap = bitmap;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= SEGMENTS_PER_TASK) {
+                ZeroDecider decider = new ZeroDecider();
+                for (int segment = from; segment < to; segment++) {
+                    bitmap[segment] = evaluateSegment(segment, decider);
+                }
+                return;
             }
+            
+            int mid = (from + to) >>> 1;
+            invokeAll(new SegmentTask(records, segmentStarts, bitmap, from, mid),
+                    new SegmentTask(records, segmentStarts, bitmap, mid, to));
         }
         
-        return 1; // Possible
+        private long evaluateSegment(int segment, ZeroDecider decider) {
+            long firstRecord = (long) segment * MappedRecords.SEGMENT_RECORDS;
+            int count = (int) Math.min(MappedRecords.SEGMENT_RECORDS, records.recordCount() - firstRecord);
+            long offset = segmentStarts[segment];
+            long word = 0;
+            
+            for (int r = 0; r < count; r++) {
+                int length = records.intAt(offset);
+                offset += Integer.BYTES;
+                long end = offset + (long) length * Integer.BYTES;
+                
+                decider.reset();
+                while (offset < end && decider.accept(records.intAt(offset))) {
+                    offset += Integer.BYTES;
+                }
+                if (decider.result() == 1) {
+                    word |= 1L << r;
+                }
+                offset = end; // skip whatever the early exit left unread
+            }
+            return word;
+        }
     }
     
     /**
@@ -180,7 +887,9 @@ public class Question3_MakeArrayZero {
         System.out.println("Test 1: " + Arrays.toString(test1));
         System.out.println("Expected: 1 (can be made [1,0,0] through operations)");
         System.out.println("Mathematical approach: " + canMakeArrayZero(test1));
+        System.out.println("Linear approach: " + canMakeArrayZeroLinear(test1));
         System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test1));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test1));
         System.out.println();
         
         // ===== ADDITIONAL TEST CASES =====
@@ -189,35 +898,45 @@ public class Question3_MakeArrayZero {
         System.out.println("Test 2: " + Arrays.toString(test2));
         System.out.println("Expected: 1 (sum of 4+6=10 is divisible by 2)");
         System.out.println("Mathematical approach: " + canMakeArrayZero(test2));
+        System.out.println("Linear approach: " + canMakeArrayZeroLinear(test2));
         System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test2));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test2));
         System.out.println();
         
         int[] test3 = {3, 5, 7};
         System.out.println("Test 3: " + Arrays.toString(test3));
         System.out.println("Expected: 0 (sum of 5+7=12 is not divisible by 3)");
         System.out.println("Mathematical approach: " + canMakeArrayZero(test3));
+        System.out.println("Linear approach: " + canMakeArrayZeroLinear(test3));
         System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test3));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test3));
         System.out.println();
         
         int[] test4 = {1, 1, 1, 1};
         System.out.println("Test 4: " + Arrays.toString(test4));
         System.out.println("Expected: 1 (sum of 1+1+1=3 is divisible by 1)");
         System.out.println("Mathematical approach: " + canMakeArrayZero(test4));
+        System.out.println("Linear approach: " + canMakeArrayZeroLinear(test4));
         System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test4));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test4));
         System.out.println();
         
         int[] test5 = {5, 10, 15};
         System.out.println("Test 5: " + Arrays.toString(test5));
         System.out.println("Expected: 1 (sum of 10+15=25 is divisible by 5)");
         System.out.println("Mathematical approach: " + canMakeArrayZero(test5));
+        System.out.println("Linear approach: " + canMakeArrayZeroLinear(test5));
         System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test5));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test5));
         System.out.println();
         
         int[] test6 = {4, 7, 9};
         System.out.println("Test 6: " + Arrays.toString(test6));
         System.out.println("Expected: 0 (sum of 7+9=16 is not divisible by 4)");
         System.out.println("Mathematical approach: " + canMakeArrayZero(test6));
+        System.out.println("Linear approach: " + canMakeArrayZeroLinear(test6));
         System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test6));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test6));
         System.out.println();
         
         // ===== EDGE CASE TESTING =====
@@ -226,13 +945,106 @@ public class Question3_MakeArrayZero {
         System.out.println("Test 7: " + Arrays.toString(test7));
         System.out.println("Expected: 1 (single element, already in desired state)");
         System.out.println("Mathematical approach: " + canMakeArrayZero(test7));
+        System.out.println("Linear approach: " + canMakeArrayZeroLinear(test7));
         System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test7));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test7));
         System.out.println();
         
         int[] test8 = {0, 1, 2};
         System.out.println("Test 8: " + Arrays.toString(test8));
         System.out.println("Expected: 0 (first element is not positive)");
         System.out.println("Mathematical approach: " + canMakeArrayZero(test8));
+        System.out.println("Linear approach: " + canMakeArrayZeroLinear(test8));
         System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test8));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test8));
+        System.out.println();
+        
+        // ===== STREAMING DECISION =====
+        // Stops reading at the first offending element
+        ZeroDecider decider = decide(IntStream.of(1, 2, 3, 2, 0, 5, 7, 9));
+        System.out.println("Test 9: [1, 2, 3, 2, 0, 5, 7, 9] as a stream");
+        System.out.println("Expected: 0 (2 < 3 is a descent, and 2 is positive)");
+        System.out.println("Streaming approach: " + decider.result() + ", first offending index: "
+                + decider.offendingIndex() + ", elements read: " + decider.count());
+        System.out.println();
+        
+        // ===== OPERATION TRACE =====
+        // Each line is a run of identical operations, collapsed
+        int[] test10 = {3, 12, 9, 3};
+        System.out.println("Test 10: " + Arrays.toString(test10) + " with its operation trace");
+        System.out.println("Expected: 1 (every element is a multiple of 3)");
+        for (Operation operation : operationTrace(test10)) {
+            System.out.println("  " + operation);
+        }
+        System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test10));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test10));
+        System.out.println();
+        
+        // ===== LARGE VALUES =====
+        // The old 1000-pass cap gave up on this one long before a[1] reached zero
+        int[] test11 = {1, 2_000_000_000, 2_000_000_000};
+        System.out.println("Test 11: " + Arrays.toString(test11));
+        System.out.println("Expected: 1");
+        System.out.println("Mathematical approach: " + canMakeArrayZero(test11));
+        System.out.println("Simulation approach: " + canMakeArrayZeroSimulation(test11));
+        System.out.println("Exact approach: " + canMakeArrayZeroExact(test11));
+        System.out.println();
+        
+        // ===== BATCH MODE: MEMORY-MAPPED RECORDS =====
+        // Tests 1-8 as length-prefixed records, in both byte orders
+        int[][] records = {test1, test2, test3, test4, test5, test6, test7, test8};
+        System.out.println("Test 12: tests 1-8 as a record file");
+        System.out.println("Expected: 1 1 1 1 1 1 1 0 (same as the mathematical approach)");
+        try {
+            Path file = Files.createTempFile("make-array-zero", ".bin");
+            try {
+                for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                    writeRecords(file, records, order);
+                    BatchResult batch = canMakeArrayZeroBatch(file, order);
+                    StringBuilder line = new StringBuilder("Batch approach (" + order + "):");
+                    for (int r = 0; r < batch.records(); r++) {
+                        line.append(' ').append(batch.result(r));
+                    }
+                    System.out.println(line);
+                }
+                
+                // Bigger random file, just for throughput
+                Random random = new Random(42);
+                int[][] generated = new int[200_000][];
+                long expected = 0;
+                for (int r = 0; r < generated.length; r++) {
+                    int[] arr = new int[1 + random.nextInt(16)];
+                    for (int i = 0; i < arr.length; i++) {
+                        arr[i] = i == 0 ? 1 + random.nextInt(3) : arr[i - 1] + random.nextInt(4) - 1;
+                    }
+                    generated[r] = arr;
+                    expected += canMakeArrayZeroLinear(arr);
+                }
+                writeRecords(file, generated, ByteOrder.BIG_ENDIAN);
+                BatchResult batch = canMakeArrayZeroBatch(file);
+                System.out.println("Batch of " + batch.records() + " random records: " + batch.successes()
+                        + " can be made zero (expected " + expected + "), "
+                        + String.format("%,.0f", batch.recordsPerSecond()) + " records/sec");
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            System.out.println("Batch test failed: " + e.getMessage());
+        }
+    }
+    
+    private static void writeRecords(Path file, int[][] records, ByteOrder order) throws IOException {
+        int values = 0;
+        for (int[] record : records) {
+            values += 1 + record.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(values * Integer.BYTES).order(order);
+        for (int[] record : records) {
+            buffer.putInt(record.length);
+            for (int value : record) {
+                buffer.putInt(value);
+            }
+        }
+        Files.write(file, buffer.array());
     }
 } 
\ No newline at end of file
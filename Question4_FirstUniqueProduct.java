@@ -1,8 +1,25 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
 public class Question4_FirstUniqueProduct {
     
+    // Below this many products the fork-join overhead costs more than it saves
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;
+    
+    // Upper bound on chunks per pool worker in firstUniqueProductParallel
+    public static final int MAX_CHUNKS_PER_WORKER = 4;
+    
     /**
      * Finds the first product in an array that occurs only once.
      * 
@@ -55,6 +72,1146 @@ public class Question4_FirstUniqueProduct {
         return null;
     }
     
+    /**
+     * ===== SINGLE-PASS APPROACH: PRIMITIVE FIRST-INDEX TABLE =====
+     * Same answer as firstUniqueProduct, in one pass over the array.
+     * 
+     * On really big arrays (tens of millions of products) the HashMap version pays for an
+     * Integer per put and then walks the whole array a second time. Instead:
+     * 1. One pass: record each product's first index in a FirstIndexTable - a second
+     *    occurrence just marks it as a duplicate
+     * 2. The first unique product is the one with the smallest index that's still unique,
+     *    so scan the table's distinct keys instead of the array
+     * 
+     * Time Complexity: O(n + d) for n products, d of them distinct
+     * Space Complexity: O(d), no boxing
+     * 
+     * @param products Array of product names
+     * @return First unique product, or null if no unique products exist
+     */
+    public static String firstUniqueProductSinglePass(String[] products) {
+        if (products == null || products.length == 0) {
+            return null;
+        }
+        
+        // Grows with the distinct products - sizing it for products.length wastes most of
+        // the table (and the final scan) when there are lots of repeats
+        FirstIndexTable table = new FirstIndexTable();
+        for (int i = 0; i < products.length; i++) {
+            table.put(products[i], i);
+        }
+        
+        int first = table.minUniqueIndex();
+        return first < 0 ? null : products[first];
+    }
+    
+    /**
+     * ===== PARALLEL MODE: HASH-SHARDED COUNTING =====
+     * Same answer as firstUniqueProduct ("first" still means first in the original array),
+     * with the counting spread over the common fork-join pool.
+     * 
+     * Approach:
+     * 1. Split the array into one contiguous chunk per worker. Each worker records first
+     *    indices for its chunk in its own FirstIndexTables, one table per shard - the shard
+     *    is picked from the top bits of the key's hash, so no locking at all
+     * 2. Merge shard by shard, also in parallel: a key can only ever be in the same shard,
+     *    so each shard's tables are merged independently. A key seen in two chunks is a
+     *    duplicate; a key in one chunk keeps what that chunk recorded
+     * 3. The answer is the smallest unique index over all shards - original order,
+     *    regardless of which worker finished first
+     * 
+     * Time Complexity: O(n / p + d) with p workers and d distinct products per chunk, roughly
+     * Space Complexity: O(d * p) worst case, when every chunk sees every product
+     * 
+     * @param products Array of product names
+     * @return First unique product, or null if no unique products exist
+     */
+    public static String firstUniqueProductParallel(String[] products) {
+        if (products == null || products.length <= DEFAULT_PARALLEL_THRESHOLD) {
+            return firstUniqueProductSinglePass(products);
+        }
+        return firstUniqueProductParallel(products, ForkJoinPool.commonPool().getParallelism());
+    }
+    
+    /**
+     * @param products Array of product names
+     * @param chunks How many pieces to count independently - at least 1, and capped at
+     *        MAX_CHUNKS_PER_WORKER per pool worker (and one per product), since every chunk
+     *        allocates a full set of shard tables and more chunks than that only add merge work
+     * @return First unique product, or null if no unique products exist
+     */
+    public static String firstUniqueProductParallel(String[] products, int chunks) {
+        if (products == null || products.length == 0) {
+            return null;
+        }
+        int parallelism = ForkJoinPool.commonPool().getParallelism();
+        chunks = Math.max(1, Math.min(Math.min(chunks, products.length), MAX_CHUNKS_PER_WORKER * parallelism));
+        
+        // A few shards per worker so the merge phase balances well too. Sized from the pool,
+        // not from chunks - memory is chunks x shards tables
+        int shardBits = 32 - Integer.numberOfLeadingZeros(4 * parallelism - 1);
+        FirstIndexTable[][] tables = new FirstIndexTable[chunks][];
+        ForkJoinPool.commonPool().invoke(new ChunkCountTask(products, tables, shardBits, 0, chunks));
+        int first = ForkJoinPool.commonPool().invoke(new ShardMergeTask(tables, 0, 1 << shardBits));
+        
+        return first < 0 ? null : products[first];
+    }
+    
+    /**
+     * ===== HELPER CLASS: PER-CHUNK COUNTING =====
+     * Splits the chunk range in half until there's one chunk left, then fills that chunk's
+     * sharded tables.
+     */
+    private static final class ChunkCountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final transient String[] products;
+        private final transient FirstIndexTable[][] tables;
+        private final int shardBits;
+        private final int from;
+        private final int to;
+        
+        ChunkCountTask(String[] products, FirstIndexTable[][] tables, int shardBits, int from, int to) {
+            this.products = products;
+            this.tables = tables;
+            this.shardBits = shardBits;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkCountTask(products, tables, shardBits, from, mid),
+                        new ChunkCountTask(products, tables, shardBits, mid, to));
+                return;
+            }
+            
+            FirstIndexTable[] shards = new FirstIndexTable[1 << shardBits];
+            for (int s = 0; s < shards.length; s++) {
+                shards[s] = new FirstIndexTable();
+            }
+            
+            int chunks = tables.length;
+            int start = (int) ((long) products.length * from / chunks);
+            int end = (int) ((long) products.length * (from + 1) / chunks);
+            for (int i = start; i < end; i++) {
+                String product = products[i];
+                if (product == null) {
+                    shards[0].put(null, i);
+                } else {
+                    // Top bits pick the shard; the table itself probes with the low bits
+                    int hash = FirstIndexTable.mix(product.hashCode());
+                    shards[hash >>> (32 - shardBits)].put(product, hash, i);
+                }
+            }
+            tables[from] = shards;
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: PER-SHARD MERGE =====
+     * Merges every chunk's table for each shard in range and returns the smallest unique
+     * index among them (-1 if none).
+     */
+    private static final class ShardMergeTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        private static final int SHARDS_PER_TASK = 4;
+        
+        private final transient FirstIndexTable[][] tables;
+        private final int from;
+        private final int to;
+        
+        ShardMergeTask(FirstIndexTable[][] tables, int from, int to) {
+            this.tables = tables;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected Integer compute() {
+            if (to - from > SHARDS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                ShardMergeTask left = new ShardMergeTask(tables, from, mid);
+                left.fork();
+                int right = new ShardMergeTask(tables, mid, to).compute();
+                return earlier(left.join(), right);
+            }
+            
+            int first = -1;
+            for (int shard = from; shard < to; shard++) {
+                // Chunk 0's table is private to this task by now, so it can absorb the others
+                FirstIndexTable merged = tables[0][shard];
+                for (int chunk = 1; chunk < tables.length; chunk++) {
+                    merged.merge(tables[chunk][shard]);
+                }
+                first = earlier(first, merged.minUniqueIndex());
+            }
+            return first;
+        }
+        
+        private static int earlier(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            return b < 0 ? a : Math.min(a, b);
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: OPEN-ADDRESSING FIRST-INDEX TABLE =====
+     * Map from product to the index where it first appeared, or DUPLICATE once it's been
+     * seen again. Keys, cached hashes and indices live in parallel arrays with linear
+     * probing - no entry objects and no boxed Integers.
+     * 
+     * null is a valid product (same as in firstUniqueProduct) but an empty slot is a null
+     * key, so it gets its own field instead of a slot.
+     */
+    public static final class FirstIndexTable {
+        /** Value for a product that has been seen more than once */
+        public static final int DUPLICATE = -1;
+        
+        private static final int ABSENT = -2;
+        private static final int MIN_CAPACITY = 16;
+        
+        private String[] keys;
+        private int[] hashes;
+        private int[] indices;
+        private int mask;
+        private int size;
+        private int nullIndex = ABSENT;
+        
+        public FirstIndexTable() {
+            this(MIN_CAPACITY / 2);
+        }
+        
+        /**
+         * @param expectedKeys Roughly how many distinct products to expect - avoids resizing
+         */
+        public FirstIndexTable(int expectedKeys) {
+            // Load factor 1/2 keeps linear probe runs short
+            int capacity = MIN_CAPACITY;
+            while (capacity < 2L * expectedKeys && capacity < (1 << 30)) {
+                capacity <<= 1;
+            }
+            allocate(capacity);
+        }
+        
+        /**
+         * Records an occurrence of key at index: the first one is kept, any later one turns
+         * the entry into DUPLICATE.
+         * 
+         * @param key Product (may be null)
+         * @param index Its position - not negative
+         */
+        public void put(String key, int index) {
+            if (key == null) {
+                nullIndex = nullIndex == ABSENT ? index : DUPLICATE;
+                return;
+            }
+            insert(key, mix(key.hashCode()), index);
+        }
+        
+        // For callers that already computed mix(key.hashCode()) - key must not be null
+        void put(String key, int hash, int index) {
+            insert(key, hash, index);
+        }
+        
+        /**
+         * Folds another table into this one, as if its occurrences had been put here: keys in
+         * both tables become DUPLICATE, keys only in other are copied as they are. Meant for
+         * tables built from disjoint parts of the same array.
+         * 
+         * @param other Table to merge in (not modified)
+         */
+        public void merge(FirstIndexTable other) {
+            if (other.nullIndex != ABSENT) {
+                nullIndex = nullIndex == ABSENT ? other.nullIndex : DUPLICATE;
+            }
+            for (int slot = 0; slot < other.keys.length; slot++) {
+                String key = other.keys[slot];
+                if (key != null) {
+                    insert(key, other.hashes[slot], other.indices[slot]);
+                }
+            }
+        }
+        
+        /**
+         * @param key Product (may be null)
+         * @return Its first index, DUPLICATE if it occurred more than once, or -2 if never seen
+         */
+        public int get(String key) {
+            if (key == null) {
+                return nullIndex;
+            }
+            int hash = mix(key.hashCode());
+            for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && keys[slot].equals(key)) {
+                    return indices[slot];
+                }
+            }
+            return ABSENT;
+        }
+        
+        /**
+         * @return Smallest index among the products seen exactly once, or -1 if there are none
+         */
+        public int minUniqueIndex() {
+            int min = nullIndex >= 0 ? nullIndex : Integer.MAX_VALUE;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != null && indices[slot] >= 0 && indices[slot] < min) {
+                    min = indices[slot];
+                }
+            }
+            return min == Integer.MAX_VALUE ? -1 : min;
+        }
+        
+        /**
+         * @return How many distinct products have been recorded
+         */
+        public int size() {
+            return size + (nullIndex != ABSENT ? 1 : 0);
+        }
+        
+        /**
+         * Spreads String.hashCode() so nearby hash codes don't land in nearby slots.
+         */
+        static int mix(int hashCode) {
+            int h = hashCode * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+        
+        // Inserts a new key with the given value, or marks an existing one DUPLICATE
+        private void insert(String key, int hash, int index) {
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (hashes[slot] == hash && keys[slot].equals(key)) {
+                    indices[slot] = DUPLICATE;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            
+            keys[slot] = key;
+            hashes[slot] = hash;
+            indices[slot] = index;
+            if (++size > keys.length >>> 1 && keys.length < (1 << 30)) {
+                resize();
+            }
+        }
+        
+        private void resize() {
+            String[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldIndices = indices;
+            allocate(oldKeys.length << 1);
+            
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = oldHashes[i] & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    hashes[slot] = oldHashes[i];
+                    indices[slot] = oldIndices[i];
+                }
+            }
+        }
+        
+        private void allocate(int capacity) {
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            indices = new int[capacity];
+            mask = capacity - 1;
+        }
+    }
+    
+    /**
+     * ===== STREAMING MODE: ONLINE TRACKER =====
+     * Keeps the first unique product up to date as products arrive one at a time, so an
+     * unbounded order stream can be queried after every event without re-running
+     * firstUniqueProduct over everything seen so far.
+     * 
+     * Approach:
+     * 1. Products that have been seen exactly once sit in a doubly-linked list, in arrival
+     *    order - the first unique product is always the head of the list
+     * 2. A HashMap indexes every product seen so far to its list node, so a second
+     *    occurrence can unlink it in O(1) without searching the list
+     * 3. Once unlinked, the product maps to a shared DUPLICATE marker instead of its node,
+     *    so repeats cost one map entry and nothing else
+     * 
+     * Same rules as firstUniqueProduct, including null being a product like any other. Since
+     * that makes a null answer ambiguous, hasUnique() tells the two cases apart.
+     * 
+     * Time Complexity: O(1) amortized per add(), O(1) per firstUnique()
+     * Space Complexity: O(d) for d distinct products, with a list node only for the live candidates
+     * 
+     * Not thread-safe - meant to be fed by one consumer of the stream.
+     */
+    public static final class FirstUniqueTracker {
+        // Shared marker for products seen more than once - never linked into the list
+        private static final Node DUPLICATE = new Node(null);
+        
+        private final Map<String, Node> index = new HashMap<>();
+        private final Node head = new Node(null); // sentinel: head.next is the oldest unique product
+        private int uniqueCount;
+        private long events;
+        
+        public FirstUniqueTracker() {
+            head.previous = head;
+            head.next = head;
+        }
+        
+        /**
+         * @param product Next product in the stream (may be null)
+         */
+        public void add(String product) {
+            events++;
+            Node node = index.get(product);
+            
+            if (node == null) {
+                // ===== FIRST SIGHTING: NEW CANDIDATE AT THE TAIL =====
+                node = new Node(product);
+                index.put(product, node);
+                node.previous = head.previous;
+                node.next = head;
+                head.previous.next = node;
+                head.previous = node;
+                uniqueCount++;
+            } else if (node != DUPLICATE) {
+                // ===== SECOND SIGHTING: EVICT FROM THE LIST =====
+                node.previous.next = node.next;
+                node.next.previous = node.previous;
+                index.put(product, DUPLICATE);
+                uniqueCount--;
+            }
+            // Third sighting onwards: nothing to do
+        }
+        
+        /**
+         * @return The first product seen exactly once so far, or null if there isn't one
+         */
+        public String firstUnique() {
+            return head.next.product; // the sentinel's product is null when the list is empty
+        }
+        
+        /**
+         * @return true if some product has been seen exactly once (even if that product is null)
+         */
+        public boolean hasUnique() {
+            return head.next != head;
+        }
+        
+        /**
+         * @return How many products have been seen exactly once
+         */
+        public int uniqueCount() {
+            return uniqueCount;
+        }
+        
+        /**
+         * @return How many different products have been seen
+         */
+        public int distinctCount() {
+            return index.size();
+        }
+        
+        /**
+         * @return How many products have been added in total
+         */
+        public long events() {
+            return events;
+        }
+        
+        private static final class Node {
+            private final String product;
+            private Node previous;
+            private Node next;
+            
+            Node(String product) {
+                this.product = product;
+            }
+        }
+    }
+    
+    /**
+     * ===== STREAMING MODE: MEMORY-MAPPED PRODUCT LOG =====
+     * Same rules as firstUniqueProduct, where each line of a UTF-8 (or plain ASCII) file is
+     * one product. The file is memory-mapped and every line is hashed and compared as a
+     * byte range of the mapping - the table holds offsets, not Strings, and only the answer
+     * is ever decoded.
+     * 
+     * Lines end at '\n' (a trailing '\r' is dropped) and empty lines are skipped, same as
+     * Question1's file mode. Products are compared byte for byte, which is the same as
+     * comparing the decoded Strings for valid UTF-8.
+     * 
+     * Time Complexity: O(file size) plus the byte comparisons on hash matches
+     * Space Complexity: O(d) for d distinct products - a few primitives each, no Strings
+     * 
+     * @param file Newline-delimited product log
+     * @return First unique product, or null if no unique products exist
+     * @throws IOException If the file can't be read
+     */
+    public static String firstUniqueProduct(Path file) throws IOException {
+        return firstUniqueProduct(file, MappedProductLog.MAP_WINDOW);
+    }
+    
+    // Window size is only configurable so lines straddling two windows can be exercised
+    // without multi-GB test files
+    static String firstUniqueProduct(Path file, int windowBytes) throws IOException {
+        if (windowBytes <= 0 || Integer.bitCount(windowBytes) != 1) {
+            throw new IllegalArgumentException("windowBytes must be a power of two: " + windowBytes);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MappedProductLog(channel, windowBytes).firstUnique();
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: MAPPED PRODUCT LOG =====
+     * The file as a list of read-only 1 GB windows behind a single byteAt(offset), plus an
+     * open-addressing table keyed by line byte ranges.
+     * 
+     * Table entries are parallel arrays: line offset, byte length, hash and a duplicate
+     * flag. The first occurrence's offset is kept, so the smallest offset among entries
+     * that aren't duplicates is the first unique line - file order is array order.
+     */
+    private static final class MappedProductLog {
+        // A single MappedByteBuffer can't exceed Integer.MAX_VALUE bytes
+        static final int MAP_WINDOW = 1 << 30;
+        private static final int MIN_CAPACITY = 16;
+        
+        private final MappedByteBuffer[] windows;
+        private final int windowShift;
+        private final long windowMask;
+        private final long size;
+        
+        // Table of distinct lines; offset -1 marks an empty slot
+        private long[] offsets;
+        private int[] lengths;
+        private int[] hashes;
+        private boolean[] duplicate;
+        private int mask;
+        private int used;
+        
+        MappedProductLog(FileChannel channel, int windowBytes) throws IOException {
+            this.size = channel.size();
+            this.windowShift = Integer.numberOfTrailingZeros(windowBytes);
+            this.windowMask = windowBytes - 1;
+            this.windows = new MappedByteBuffer[(int) ((size + windowBytes - 1) / windowBytes)];
+            for (int w = 0; w < windows.length; w++) {
+                long windowStart = (long) w * windowBytes;
+                int length = (int) Math.min(windowBytes, size - windowStart);
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+            }
+            allocate(MIN_CAPACITY);
+        }
+        
+        byte byteAt(long offset) {
+            return windows[(int) (offset >>> windowShift)].get((int) (offset & windowMask));
+        }
+        
+        String firstUnique() {
+            // ===== ONE PASS: HASH EACH LINE AS ITS BYTES GO BY =====
+            long lineStart = 0;
+            int hash = 0;
+            int hashBeforeLast = 0; // in case the last byte turns out to be a '\r'
+            byte last = 0;
+            
+            for (long offset = 0; offset <= size; offset++) {
+                byte b = offset < size ? byteAt(offset) : (byte) '\n'; // last line may lack one
+                if (b != '\n') {
+                    hashBeforeLast = hash;
+                    hash = 31 * hash + (b & 0xFF);
+                    last = b;
+                    continue;
+                }
+                
+                long length = offset - lineStart;
+                if (length > 0 && last == '\r') {
+                    length--;
+                    hash = hashBeforeLast;
+                }
+                if (length > 0) {
+                    if (length > Integer.MAX_VALUE) {
+                        throw new IllegalStateException("line at byte " + lineStart + " is over 2 GB");
+                    }
+                    record(lineStart, (int) length, FirstIndexTable.mix(hash));
+                }
+                lineStart = offset + 1;
+                hash = 0;
+                last = 0;
+            }
+            
+            // ===== SMALLEST OFFSET STILL UNIQUE =====
+            int best = -1;
+            for (int slot = 0; slot < offsets.length; slot++) {
+                if (offsets[slot] >= 0 && !duplicate[slot] && (best < 0 || offsets[slot] < offsets[best])) {
+                    best = slot;
+                }
+            }
+            return best < 0 ? null : decode(offsets[best], lengths[best]);
+        }
+        
+        private void record(long offset, int length, int hash) {
+            int slot = hash & mask;
+            while (offsets[slot] >= 0) {
+                if (hashes[slot] == hash && lengths[slot] == length && sameBytes(offsets[slot], offset, length)) {
+                    duplicate[slot] = true;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            
+            offsets[slot] = offset;
+            lengths[slot] = length;
+            hashes[slot] = hash;
+            if (++used > offsets.length >>> 1 && offsets.length < (1 << 30)) {
+                resize();
+            }
+        }
+        
+        private boolean sameBytes(long a, long b, int length) {
+            for (int i = 0; i < length; i++) {
+                if (byteAt(a + i) != byteAt(b + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private String decode(long offset, int length) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = byteAt(offset + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        private void resize() {
+            long[] oldOffsets = offsets;
+            int[] oldLengths = lengths;
+            int[] oldHashes = hashes;
+            boolean[] oldDuplicate = duplicate;
+            allocate(oldOffsets.length << 1);
+            
+            for (int i = 0; i < oldOffsets.length; i++) {
+                if (oldOffsets[i] >= 0) {
+                    int slot = oldHashes[i] & mask;
+                    while (offsets[slot] >= 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    offsets[slot] = oldOffsets[i];
+                    lengths[slot] = oldLengths[i];
+                    hashes[slot] = oldHashes[i];
+                    duplicate[slot] = oldDuplicate[i];
+                }
+            }
+        }
+        
+        private void allocate(int capacity) {
+            offsets = new long[capacity];
+            Arrays.fill(offsets, -1);
+            lengths = new int[capacity];
+            hashes = new int[capacity];
+            duplicate = new boolean[capacity];
+            mask = capacity - 1;
+        }
+    }
+    
+    /**
+     * ===== SLIDING WINDOW MODE: LAST W EVENTS =====
+     * First product that appears exactly once among the last W products added - the same
+     * answer as firstUniqueProduct on a snapshot of the window, without taking one.
+     * 
+     * Approach:
+     * 1. A ring buffer holds the last W products, so the one about to expire is always at
+     *    the slot the new one goes into
+     * 2. A HashMap keeps each product's count in the window and the position of its last
+     *    occurrence. When an expiry takes a count from 2 down to 1, the occurrence that's
+     *    left must be the last one - so its position is known without searching
+     * 3. Ring slots holding a product that's unique in the window are flagged in a
+     *    SingletonPositions bitset. Walking the ring from the oldest slot (wrapping around)
+     *    is window order, so the answer is the first flagged slot from there
+     * 4. That answer is cached and only looked up again when its slot stops being a
+     *    singleton (expired, or seen again) - new singletons are either newer than the
+     *    cached one or are compared against it directly
+     * 
+     * Time Complexity: O(1) amortized per add() (hashing, plus a bitset update of
+     * log64(W) words at most - 4 for a 1M window); firstUnique() is O(1) from the cache,
+     * with the same log64(W) bound for a lookup after it's been invalidated
+     * Space Complexity: O(W)
+     * 
+     * Not thread-safe - meant to be fed by one consumer of the stream.
+     */
+    public static final class SlidingWindowTracker {
+        private final String[] ring;
+        private final Map<String, WindowCount> counts = new HashMap<>();
+        private final SingletonPositions singletons;
+        private long added;                 // position of the next product
+        private long cachedFirst = -1;      // position of the answer, -1 if there isn't one
+        private boolean cacheValid = true;
+        
+        /**
+         * @param window How many of the most recent products to consider (W)
+         */
+        public SlidingWindowTracker(int window) {
+            if (window <= 0) {
+                throw new IllegalArgumentException("window must be positive: " + window);
+            }
+            this.ring = new String[window];
+            this.singletons = new SingletonPositions(window);
+        }
+        
+        /**
+         * Adds a product, expiring the oldest one if the window is already full.
+         * 
+         * @param product Next product in the stream (may be null)
+         */
+        public void add(String product) {
+            int slot = (int) (added % ring.length);
+            
+            // ===== EXPIRE THE OLDEST PRODUCT =====
+            if (added >= ring.length) {
+                String expired = ring[slot];
+                WindowCount count = counts.get(expired);
+                if (--count.count == 0) {
+                    counts.remove(expired);
+                    clearSingleton(added - ring.length); // it was unique, at this very slot
+                } else if (count.count == 1) {
+                    setSingleton(count.lastPosition);
+                }
+            }
+            
+            // ===== ADD THE NEW ONE =====
+            ring[slot] = product;
+            WindowCount count = counts.get(product);
+            if (count == null) {
+                counts.put(product, new WindowCount(added));
+                setSingleton(added);
+            } else {
+                if (count.count == 1) {
+                    clearSingleton(count.lastPosition);
+                }
+                count.count++;
+                count.lastPosition = added;
+            }
+            added++;
+        }
+        
+        /**
+         * @return The first product that's unique within the window, or null if there isn't one
+         */
+        public String firstUnique() {
+            long first = firstPosition();
+            return first < 0 ? null : ring[(int) (first % ring.length)];
+        }
+        
+        /**
+         * @return true if some product is unique within the window (even if that product is null)
+         */
+        public boolean hasUnique() {
+            return firstPosition() >= 0;
+        }
+        
+        /**
+         * @return How many products are currently in the window
+         */
+        public int size() {
+            return (int) Math.min(added, ring.length);
+        }
+        
+        public int window() {
+            return ring.length;
+        }
+        
+        private long firstPosition() {
+            if (!cacheValid) {
+                long windowStart = Math.max(0, added - ring.length);
+                int startSlot = (int) (windowStart % ring.length);
+                
+                // Slots from startSlot to the end of the ring come first, then the wrapped part
+                int slot = singletons.nextSetBit(startSlot);
+                if (slot < 0) {
+                    slot = singletons.nextSetBit(0);
+                }
+                cachedFirst = slot < 0 ? -1 : windowStart + Math.floorMod(slot - startSlot, ring.length);
+                cacheValid = true;
+            }
+            return cachedFirst;
+        }
+        
+        private void setSingleton(long position) {
+            singletons.set((int) (position % ring.length));
+            if (cacheValid && (cachedFirst < 0 || position < cachedFirst)) {
+                cachedFirst = position;
+            }
+        }
+        
+        private void clearSingleton(long position) {
+            singletons.clear((int) (position % ring.length));
+            if (position == cachedFirst) {
+                cacheValid = false;
+            }
+        }
+        
+        private static final class WindowCount {
+            private int count = 1;
+            private long lastPosition;
+            
+            WindowCount(long position) {
+                this.lastPosition = position;
+            }
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: HIERARCHICAL BITSET =====
+     * Fixed-size bitset with a summary on top: bit i of level k+1 is set when word i of level k
+     * isn't zero. Finding the next set bit climbs until a level has one in range, then comes
+     * straight back down - one word per level instead of a scan over empty words.
+     */
+    private static final class SingletonPositions {
+        private final long[][] levels;
+        
+        SingletonPositions(int bits) {
+            int depth = 1;
+            for (long words = wordsFor(bits); words > 1; words = wordsFor(words)) {
+                depth++;
+            }
+            levels = new long[depth][];
+            long size = bits;
+            for (int level = 0; level < depth; level++) {
+                levels[level] = new long[(int) wordsFor(size)];
+                size = levels[level].length;
+            }
+        }
+        
+        void set(int bit) {
+            for (long[] level : levels) {
+                int word = bit >>> 6;
+                boolean wasEmpty = level[word] == 0;
+                level[word] |= 1L << bit;
+                if (!wasEmpty) {
+                    return; // summary bits above are already set
+                }
+                bit = word;
+            }
+        }
+        
+        void clear(int bit) {
+            for (long[] level : levels) {
+                int word = bit >>> 6;
+                level[word] &= ~(1L << bit);
+                if (level[word] != 0) {
+                    return; // word still has bits, summary above stays set
+                }
+                bit = word;
+            }
+        }
+        
+        /**
+         * @return The first set bit at or after from, or -1 if there isn't one
+         */
+        int nextSetBit(int from) {
+            return nextSetBit(0, from);
+        }
+        
+        private int nextSetBit(int level, int from) {
+            int word = from >>> 6;
+            if (word >= levels[level].length) {
+                return -1;
+            }
+            long bits = levels[level][word] & (-1L << from);
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (level + 1 == levels.length) {
+                return -1; // top level is a single word
+            }
+            
+            // ===== CLIMB: NEXT NON-EMPTY WORD AT THIS LEVEL =====
+            int next = nextSetBit(level + 1, word + 1);
+            if (next < 0) {
+                return -1;
+            }
+            return (next << 6) + Long.numberOfTrailingZeros(levels[level][next]);
+        }
+        
+        private static long wordsFor(long bits) {
+            return (bits + 63) >>> 6;
+        }
+    }
+    
+    /**
+     * ===== APPROXIMATE MODE: BOUNDED MEMORY =====
+     * Approximate first unique product, with memory fixed up front instead of growing with
+     * the number of distinct products. Sized for products.length distinct products; see
+     * ApproximateFirstUnique for the error modes and for an exact verification pass.
+     * 
+     * @param products Array of product names
+     * @param falsePositiveRate Target false-positive rate of each Bloom filter, e.g. 0.01
+     * @return A product that occurs exactly once (usually the first), or null
+     */
+    public static String firstUniqueProductApproximate(String[] products, double falsePositiveRate) {
+        if (products == null || products.length == 0) {
+            return null;
+        }
+        ApproximateFirstUnique approximate = new ApproximateFirstUnique(
+                products.length, falsePositiveRate, ApproximateFirstUnique.DEFAULT_MAX_CANDIDATES);
+        for (String product : products) {
+            approximate.add(product);
+        }
+        return approximate.firstUnique();
+    }
+    
+    /**
+     * ===== HELPER CLASS: BLOOM-FILTER FIRST UNIQUE =====
+     * For catalogues too big for any exact map. Memory is two Bloom filters plus a bounded
+     * queue of candidates, all fixed when it's created.
+     * 
+     * Approach:
+     * 1. "Seen once" filter: every product is added to it. If it was (probably) already
+     *    there, the product goes into the "seen twice" filter instead
+     * 2. Products that were new to "seen once" are candidates - kept in a queue in arrival
+     *    order, so the head is the earliest possible answer
+     * 3. firstUnique() is the first candidate not in "seen twice". Being in "seen twice"
+     *    never goes away, so a cursor skips past those for good
+     * 4. When the queue fills up it's compacted (candidates in "seen twice" are dropped).
+     *    If it's still full, new candidates are dropped and counted - the earliest ones
+     *    are the ones worth keeping
+     * 
+     * What can go wrong (Bloom filters have false positives, never false negatives):
+     * - A real repeat is always caught, so the answer is never a product that occurs twice
+     * - A false positive in "seen once" on a product's first (and only) occurrence means it
+     *   never becomes a candidate. A false positive in "seen twice" wrongly marks a
+     *   candidate as a repeat. Either way a genuinely unique product can be skipped, and the
+     *   answer is a later unique product - or null
+     * - Dropped candidates (droppedCandidates() > 0) can also make the answer null or later
+     * 
+     * verify() re-counts the queued candidates exactly in a second pass, which undoes the
+     * "seen twice" false positives among them. The other two misses can't be recovered in
+     * bounded memory - if verify() returns null with droppedCandidates() == 0, the most
+     * likely cause is a "seen once" false positive, so lower the rate or use the exact methods.
+     * 
+     * Not thread-safe.
+     */
+    public static final class ApproximateFirstUnique {
+        public static final int DEFAULT_MAX_CANDIDATES = 1 << 16;
+        
+        private final BloomFilter seenOnce;
+        private final BloomFilter seenTwice;
+        private final String[] candidates;
+        private int candidateCount;
+        private int firstLive;              // candidates before this are all in "seen twice"
+        private long droppedCandidates;
+        private long events;
+        
+        /**
+         * @param expectedDistinct Roughly how many distinct products to expect
+         * @param falsePositiveRate Target false-positive rate of each filter, between 0 and 1
+         * @param maxCandidates Capacity of the candidate queue
+         */
+        public ApproximateFirstUnique(long expectedDistinct, double falsePositiveRate, int maxCandidates) {
+            if (expectedDistinct <= 0) {
+                throw new IllegalArgumentException("expectedDistinct must be positive: " + expectedDistinct);
+            }
+            if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+                throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1: " + falsePositiveRate);
+            }
+            if (maxCandidates <= 0) {
+                throw new IllegalArgumentException("maxCandidates must be positive: " + maxCandidates);
+            }
+            this.seenOnce = new BloomFilter(expectedDistinct, falsePositiveRate);
+            this.seenTwice = new BloomFilter(expectedDistinct, falsePositiveRate);
+            this.candidates = new String[maxCandidates];
+        }
+        
+        /**
+         * @param product Next product (may be null)
+         */
+        public void add(String product) {
+            events++;
+            long hash = hash64(product);
+            
+            if (seenOnce.put(hash)) {
+                seenTwice.put(hash);
+                return;
+            }
+            
+            // ===== NEW PRODUCT: QUEUE AS A CANDIDATE =====
+            if (candidateCount == candidates.length) {
+                compact();
+            }
+            if (candidateCount == candidates.length) {
+                droppedCandidates++;
+                return;
+            }
+            candidates[candidateCount++] = product;
+        }
+        
+        /**
+         * @return The first candidate not (probably) seen twice, or null if there isn't one
+         */
+        public String firstUnique() {
+            while (firstLive < candidateCount && seenTwice.mightContain(hash64(candidates[firstLive]))) {
+                firstLive++;
+            }
+            return firstLive < candidateCount ? candidates[firstLive] : null;
+        }
+        
+        /**
+         * Exact second pass: counts every queued candidate over the same products again
+         * (only candidates are counted, so memory stays bounded by the queue) and returns
+         * the first one that really occurs once.
+         * 
+         * @param products The same products that were added, in the same order
+         * @return First queued candidate that occurs exactly once, or null if none does
+         */
+        public String verify(Iterable<String> products) {
+            Map<String, Integer> counts = new HashMap<>();
+            for (int i = 0; i < candidateCount; i++) {
+                counts.put(candidates[i], 0);
+            }
+            for (String product : products) {
+                Integer count = counts.get(product);
+                if (count != null) {
+                    counts.put(product, count + 1);
+                }
+            }
+            
+            for (int i = 0; i < candidateCount; i++) {
+                if (counts.get(candidates[i]) == 1) {
+                    return candidates[i];
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * @return How many candidates were turned away because the queue was full
+         */
+        public long droppedCandidates() {
+            return droppedCandidates;
+        }
+        
+        /**
+         * @return How many candidates are queued right now
+         */
+        public int candidateCount() {
+            return candidateCount;
+        }
+        
+        public long events() {
+            return events;
+        }
+        
+        /**
+         * @return Size of the two filters and the queue's slots (not the Strings themselves)
+         */
+        public long memoryBytes() {
+            return seenOnce.memoryBytes() + seenTwice.memoryBytes() + 8L * candidates.length;
+        }
+        
+        // Drops the candidates already in "seen twice", keeping arrival order
+        private void compact() {
+            int kept = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                String candidate = candidates[i];
+                if (i >= firstLive && !seenTwice.mightContain(hash64(candidate))) {
+                    candidates[kept++] = candidate;
+                }
+            }
+            Arrays.fill(candidates, kept, candidateCount, null);
+            candidateCount = kept;
+            firstLive = 0;
+        }
+        
+        /**
+         * 64-bit FNV-1a over the chars, finished with the MurmurHash3 mixer so every bit of
+         * the result depends on every char - String.hashCode()'s 32 bits aren't enough to
+         * keep billions of products apart.
+         */
+        static long hash64(String product) {
+            if (product == null) {
+                return 0x6A09E667F3BCC908L; // any fixed value will do
+            }
+            long h = 0xCBF29CE484222325L;
+            for (int i = 0; i < product.length(); i++) {
+                h = (h ^ product.charAt(i)) * 0x100000001B3L;
+            }
+            return mix64(h);
+        }
+        
+        static long mix64(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            return h ^ (h >>> 33);
+        }
+    }
+    
+    /**
+     * ===== HELPER CLASS: BLOOM FILTER =====
+     * Sized the standard way for n keys at false-positive rate p: m = -n ln(p) / (ln 2)^2 bits
+     * and k = (m / n) ln 2 hash functions. The k bit positions come from two hashes,
+     * h1 + i * h2 (Kirsch and Mitzenmacher), so each key is only hashed once.
+     */
+    private static final class BloomFilter {
+        private final long[] words;
+        private final long bits;
+        private final int hashes;
+        
+        BloomFilter(long expectedKeys, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long wanted = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+            long wordCount = Math.max(1, (wanted + 63) >>> 6);
+            if (wordCount > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("filter for " + expectedKeys + " keys at rate "
+                        + falsePositiveRate + " needs more than 16 GB");
+            }
+            this.words = new long[(int) wordCount];
+            this.bits = wordCount << 6;
+            this.hashes = (int) Math.max(1, Math.round((double) bits / expectedKeys * ln2));
+        }
+        
+        /**
+         * @return true if every bit was already set - the key was (probably) added before
+         */
+        boolean put(long hash) {
+            long h2 = ApproximateFirstUnique.mix64(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            boolean present = true;
+            for (int i = 0; i < hashes; i++) {
+                long bit = ((hash + i * h2) & Long.MAX_VALUE) % bits;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                if ((words[word] & mask) == 0) {
+                    present = false;
+                    words[word] |= mask;
+                }
+            }
+            return present;
+        }
+        
+        boolean mightContain(long hash) {
+            long h2 = ApproximateFirstUnique.mix64(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = ((hash + i * h2) & Long.MAX_VALUE) % bits;
+                if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        long memoryBytes() {
+            return 8L * words.length;
+        }
+    }
+    
     /**
      * ===== TEST METHOD - COMPREHENSIVE TESTING =====
      * Test method to demonstrate the solution
@@ -82,5 +1239,66 @@ public class Question4_FirstUniqueProduct {
         // Test with null values - added this after finding a bug in my testing
         String[] test6 = {"A", null, "B", "A"};
         System.out.println("Test 6: " + firstUniqueProduct(test6)); // Expected: "B"
+        
+        // ===== SINGLE-PASS APPROACH =====
+        System.out.println("Single-pass results: " + firstUniqueProductSinglePass(test1) + ", "
+                + firstUniqueProductSinglePass(test2) + ", " + firstUniqueProductSinglePass(test3)
+                + ", " + firstUniqueProductSinglePass(test4)); // Expected: Computer, C, null, Single
+        
+        // ===== PARALLEL MODE =====
+        // One chunk per product (up to the per-worker cap) forces keys through the cross-chunk merge
+        System.out.println("Parallel results: " + firstUniqueProductParallel(test1, test1.length) + ", "
+                + firstUniqueProductParallel(test2, test2.length) + ", "
+                + firstUniqueProductParallel(test3, test3.length)); // Expected: Computer, C, null
+        
+        // ===== STREAMING MODE: MEMORY-MAPPED FILE =====
+        try {
+            Path file = Files.createTempFile("products", ".log");
+            try {
+                Files.write(file, "Apple\r\nComputer\nApple\n\nBag\n".getBytes(StandardCharsets.UTF_8));
+                System.out.println("File result: " + firstUniqueProduct(file)); // Expected: Computer
+                // Tiny windows force lines to straddle mapping boundaries
+                System.out.println("File result (4-byte windows): "
+                        + firstUniqueProduct(file, 4)); // Expected: Computer
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            System.out.println("File test failed: " + e.getMessage());
+        }
+        
+        // ===== STREAMING MODE =====
+        // Same stream as test 2, queried after every event
+        FirstUniqueTracker tracker = new FirstUniqueTracker();
+        StringBuilder answers = new StringBuilder();
+        for (String product : test2) {
+            tracker.add(product);
+            answers.append(answers.length() == 0 ? "" : ", ").append(tracker.firstUnique());
+        }
+        System.out.println("Test 7 (streaming): " + answers); // Expected: A, A, A, B, C
+        System.out.println("Unique: " + tracker.uniqueCount() + ", distinct: "
+                + tracker.distinctCount()); // Expected: Unique: 1, distinct: 3
+        
+        // ===== SLIDING WINDOW MODE =====
+        // Only the last 3 products count
+        SlidingWindowTracker window = new SlidingWindowTracker(3);
+        StringBuilder windowAnswers = new StringBuilder();
+        for (String product : new String[] {"A", "B", "A", "C", "B", "B", "B"}) {
+            window.add(product);
+            windowAnswers.append(windowAnswers.length() == 0 ? "" : ", ").append(window.firstUnique());
+        }
+        System.out.println("Test 8 (window of 3): " + windowAnswers); // Expected: A, A, B, B, A, C, null
+        
+        // ===== APPROXIMATE MODE =====
+        System.out.println("Approximate result: "
+                + firstUniqueProductApproximate(test1, 0.01)); // Expected: Computer
+        // A 2-slot queue fills up on test 2, so "C" is dropped - the dropped count says not to trust the null
+        ApproximateFirstUnique approximate = new ApproximateFirstUnique(test2.length, 0.01, 2);
+        for (String product : test2) {
+            approximate.add(product);
+        }
+        System.out.println("Approximate with 2 candidates: " + approximate.firstUnique() + ", verified: "
+                + approximate.verify(Arrays.asList(test2)) + ", dropped: "
+                + approximate.droppedCandidates()); // Expected: null, verified: null, dropped: 1
     }
 }